@@ -12,8 +12,6 @@
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
@@ -24,6 +22,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -106,35 +105,35 @@ public static <A> List<A> parseFile(InputStream inputStream, Class<A> targetClas
 						continue;
 					}
 
-					Method writeMethod = fieldBody.getWriteMethod();
+					BiConsumer<Object, Object> setter = fieldBody.getSetter();
 					switch (fieldBody.getClassName()) {
 						case ReflectConstants.STRING:
 							if (metaCell.getStringCellValue() != null) {
-								writeMethod.invoke(target, metaCell.getStringCellValue());
+								setter.accept(target, metaCell.getStringCellValue());
 							}
 							break;
 						case ReflectConstants.LOCAL_DATE:
 							if (metaCell.getLocalDateTimeCellValue() != null) {
 								LocalDateTime dateTimeCellValue = metaCell.getLocalDateTimeCellValue();
-								writeMethod.invoke(target, dateTimeCellValue.toLocalDate());
+								setter.accept(target, dateTimeCellValue.toLocalDate());
 							}
 							break;
 						case ReflectConstants.LOCAL_DATE_TIME:
 							if (metaCell.getLocalDateTimeCellValue() != null) {
-								writeMethod.invoke(target, metaCell.getLocalDateTimeCellValue());
+								setter.accept(target, metaCell.getLocalDateTimeCellValue());
 							}
 							break;
 						case ReflectConstants.DOUBLE:
-							writeMethod.invoke(target, metaCell.getNumericCellValue());
+							setter.accept(target, metaCell.getNumericCellValue());
 							break;
 						case ReflectConstants.INTEGER:
 							String cellValue = String.valueOf(metaCell.getNumericCellValue());
 							cellValue = cellValue.substring(0, cellValue.indexOf("."));
-							writeMethod.invoke(target, Integer.parseInt(cellValue));
+							setter.accept(target, Integer.parseInt(cellValue));
 							break;
 						case ReflectConstants.DATE:
 							if (metaCell.getDateCellValue() != null) {
-								writeMethod.invoke(target, metaCell.getDateCellValue());
+								setter.accept(target, metaCell.getDateCellValue());
 							}
 							break;
 						default:
@@ -145,10 +144,7 @@ public static <A> List<A> parseFile(InputStream inputStream, Class<A> targetClas
 				firstRowNum++;
 			}
 			return result;
-		} catch (IOException
-				| IllegalAccessException
-				| InvocationTargetException
-				| InvalidFormatException e) {
+		} catch (IOException | InvalidFormatException e) {
 			log.error(e.getMessage());
 			throw new OxygenException(e.getMessage());
 		}
@@ -249,70 +245,74 @@ public static void generateFile(List<?> data, OutputStream outputStream) {
 				cell.setCellStyle(colorStyle);
 			}
 
+			// styles shared by every row
+			List<XSSFCellStyle> dateStyles = new ArrayList<>(fieldBodies.size());
+			List<XSSFCellStyle> numberStyles = new ArrayList<>(fieldBodies.size());
+			for (FieldBody metaFieldBody : fieldBodies) {
+				ExcelType annotation = metaFieldBody.getField().getAnnotation(ExcelType.class);
+
+				// time style
+				XSSFCellStyle dateStyle = workbook.createCellStyle();
+				dateStyle.setDataFormat(
+						workbook.getCreationHelper().createDataFormat().getFormat(annotation.cellDateFormat()));
+				dateStyles.add(dateStyle);
+
+				// number style
+				XSSFCellStyle numberStyle = workbook.createCellStyle();
+				numberStyle.setDataFormat(
+						(workbook.createDataFormat().getFormat(annotation.cellDoubleFormat())));
+				numberStyles.add(numberStyle);
+			}
+
 			// add data
+			int rowIndex = 1;
 			for (Object metaData : data) {
-				XSSFRow metaRow = sheet.createRow(data.indexOf(metaData) + 1);
-				for (FieldBody metaFieldBody : fieldBodies) {
-					Field metaField = metaFieldBody.getField();
-					if (metaField.isAnnotationPresent(ExcelType.class)) {
-						ExcelType annotation = metaField.getAnnotation(ExcelType.class);
-						int cellIndex =
-								annotation.cellIndex() == -1
-										? fieldBodies.indexOf(metaFieldBody)
-										: annotation.cellIndex();
-
-						if (metaFieldBody.getReadMethod().invoke(metaData) == null) {
-							continue;
-						}
-
-						XSSFCell cell = metaRow.createCell(cellIndex);
-
-						// time style
-						XSSFCellStyle dateStyle = workbook.createCellStyle();
-						dateStyle.setDataFormat(
-								workbook
-										.getCreationHelper()
-										.createDataFormat()
-										.getFormat(annotation.cellDateFormat()));
-
-						// number style
-						XSSFCellStyle numberStyle = workbook.createCellStyle();
-						numberStyle.setDataFormat(
-								(workbook.createDataFormat().getFormat(annotation.cellDoubleFormat())));
-
-						Method readMethod = metaFieldBody.getReadMethod();
-						String dataStr = String.valueOf(readMethod.invoke(metaData));
-						switch (metaFieldBody.getClassName()) {
-							case ReflectConstants.STRING:
-								cell.setCellValue(dataStr);
-								break;
-							case ReflectConstants.DATE:
-								SimpleDateFormat dateFormat = new SimpleDateFormat("EEE MMM dd HH:mm:ss zzz yyyy");
-								cell.setCellValue(dateFormat.parse(dataStr));
-								cell.setCellStyle(dateStyle);
-								break;
-							case ReflectConstants.LOCAL_DATE_TIME:
-								cell.setCellValue(
-										LocalDateTime.parse(
-												dataStr.substring(0, dataStr.indexOf('.')),
-												DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")));
-								cell.setCellStyle(dateStyle);
-								break;
-							case ReflectConstants.LOCAL_DATE:
-								cell.setCellValue(
-										LocalDate.parse(
-												dataStr.substring(0, dataStr.indexOf('.')),
-												DateTimeFormatter.ofPattern("yyyy-MM-dd")));
-								cell.setCellStyle(dateStyle);
-								break;
-							case ReflectConstants.DOUBLE:
-							case ReflectConstants.INTEGER:
-								cell.setCellValue(Double.parseDouble(dataStr));
-								cell.setCellStyle(numberStyle);
-								break;
-							default:
-								throw new OxygenException("not support class properties");
-						}
+				XSSFRow metaRow = sheet.createRow(rowIndex++);
+				for (int i = 0; i < fieldBodies.size(); i++) {
+					FieldBody metaFieldBody = fieldBodies.get(i);
+					ExcelType annotation = metaFieldBody.getField().getAnnotation(ExcelType.class);
+					int cellIndex = annotation.cellIndex() == -1 ? i : annotation.cellIndex();
+
+					Object value = metaFieldBody.getGetter().apply(metaData);
+					if (value == null) {
+						continue;
+					}
+
+					XSSFCell cell = metaRow.createCell(cellIndex);
+					XSSFCellStyle dateStyle = dateStyles.get(i);
+					XSSFCellStyle numberStyle = numberStyles.get(i);
+
+					String dataStr = String.valueOf(value);
+					switch (metaFieldBody.getClassName()) {
+						case ReflectConstants.STRING:
+							cell.setCellValue(dataStr);
+							break;
+						case ReflectConstants.DATE:
+							SimpleDateFormat dateFormat = new SimpleDateFormat("EEE MMM dd HH:mm:ss zzz yyyy");
+							cell.setCellValue(dateFormat.parse(dataStr));
+							cell.setCellStyle(dateStyle);
+							break;
+						case ReflectConstants.LOCAL_DATE_TIME:
+							cell.setCellValue(
+									LocalDateTime.parse(
+											dataStr.substring(0, dataStr.indexOf('.')),
+											DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")));
+							cell.setCellStyle(dateStyle);
+							break;
+						case ReflectConstants.LOCAL_DATE:
+							cell.setCellValue(
+									LocalDate.parse(
+											dataStr.substring(0, dataStr.indexOf('.')),
+											DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+							cell.setCellStyle(dateStyle);
+							break;
+						case ReflectConstants.DOUBLE:
+						case ReflectConstants.INTEGER:
+							cell.setCellValue(Double.parseDouble(dataStr));
+							cell.setCellStyle(numberStyle);
+							break;
+						default:
+							throw new OxygenException("not support class properties");
 					}
 				}
 			}
@@ -12,4 +12,9 @@ public OxygenException(String message) {
 
 		super("[oxygen-core]==> " + message);
 	}
+
+	public OxygenException(String message, Throwable cause) {
+
+		super("[oxygen-core]==> " + message, cause);
+	}
 }
@@ -0,0 +1,194 @@
+package com.isxcode.oxygen.core.reflect;
+
+import com.isxcode.oxygen.core.exception.OxygenException;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * generate getter and setter functions, instead of Method.invoke
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Slf4j
+public class AccessorFactory {
+
+	private static final Map<Method, Function<Object, Object>> GETTER_MAP =
+			new ConcurrentHashMap<>();
+
+	private static final Map<Method, BiConsumer<Object, Object>> SETTER_MAP =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * get getter function, generated once for each method
+	 *
+	 * @param readMethod readMethod
+	 * @return getter
+	 * @since 1.11.0
+	 */
+	public static Function<Object, Object> getter(Method readMethod) {
+
+		if (readMethod == null) {
+			return null;
+		}
+		return GETTER_MAP.computeIfAbsent(readMethod, AccessorFactory::createGetter);
+	}
+
+	/**
+	 * get setter function, generated once for each method
+	 *
+	 * @param writeMethod writeMethod
+	 * @return setter
+	 * @since 1.11.0
+	 */
+	public static BiConsumer<Object, Object> setter(Method writeMethod) {
+
+		if (writeMethod == null) {
+			return null;
+		}
+		return SETTER_MAP.computeIfAbsent(writeMethod, AccessorFactory::createSetter);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> createGetter(Method readMethod) {
+
+		MethodHandle methodHandle = unreflect(readMethod);
+
+		if (isLambdaSupported(readMethod)) {
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				CallSite callSite =
+						LambdaMetafactory.metafactory(
+								lookup,
+								"apply",
+								MethodType.methodType(Function.class),
+								MethodType.methodType(Object.class, Object.class),
+								methodHandle,
+								MethodType.methodType(
+										wrap(readMethod.getReturnType()), readMethod.getDeclaringClass()));
+				return (Function<Object, Object>) callSite.getTarget().invokeExact();
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				// LambdaConversionException, use the method handle
+				log.debug(e.getMessage());
+			}
+		}
+
+		MethodHandle getterHandle =
+				methodHandle.asType(MethodType.methodType(Object.class, Object.class));
+		return target -> {
+			try {
+				return getterHandle.invokeExact(target);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new OxygenException(e.getMessage(), e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> createSetter(Method writeMethod) {
+
+		MethodHandle methodHandle = unreflect(writeMethod);
+
+		if (isLambdaSupported(writeMethod)) {
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				CallSite callSite =
+						LambdaMetafactory.metafactory(
+								lookup,
+								"accept",
+								MethodType.methodType(BiConsumer.class),
+								MethodType.methodType(void.class, Object.class, Object.class),
+								methodHandle,
+								MethodType.methodType(
+										void.class,
+										writeMethod.getDeclaringClass(),
+										wrap(writeMethod.getParameterTypes()[0])));
+				return (BiConsumer<Object, Object>) callSite.getTarget().invokeExact();
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				// LambdaConversionException, use the method handle
+				log.debug(e.getMessage());
+			}
+		}
+
+		MethodHandle setterHandle =
+				methodHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return (target, value) -> {
+			try {
+				setterHandle.invokeExact(target, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new OxygenException(e.getMessage(), e);
+			}
+		};
+	}
+
+	private static MethodHandle unreflect(Method method) {
+
+		try {
+			if (!Modifier.isPublic(method.getModifiers())
+					|| !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+				method.setAccessible(true);
+			}
+			return MethodHandles.lookup().unreflect(method);
+		} catch (IllegalAccessException e) {
+			log.error(e.getMessage());
+			throw new OxygenException(e.getMessage(), e);
+		}
+	}
+
+	/** generated lambda lives in this class loader, so all classes must be public and visible */
+	private static boolean isLambdaSupported(Method method) {
+
+		if (!Modifier.isPublic(method.getModifiers())
+				|| !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+			return false;
+		}
+		if (!isVisible(method.getDeclaringClass()) || !isVisible(method.getReturnType())) {
+			return false;
+		}
+		for (Class<?> metaType : method.getParameterTypes()) {
+			if (!isVisible(metaType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isVisible(Class<?> targetClass) {
+
+		if (targetClass.isPrimitive()) {
+			return true;
+		}
+		if (targetClass.isArray()) {
+			return isVisible(targetClass.getComponentType());
+		}
+		try {
+			return Class.forName(targetClass.getName(), false, AccessorFactory.class.getClassLoader())
+					== targetClass;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	private static Class<?> wrap(Class<?> targetClass) {
+
+		return MethodType.methodType(targetClass).wrap().returnType();
+	}
+}
@@ -2,6 +2,8 @@
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -30,4 +32,10 @@ public class FieldBody {
 
 	/** className */
 	private String className;
+
+	/** generated read function */
+	private Function<Object, Object> getter;
+
+	/** generated write function */
+	private BiConsumer<Object, Object> setter;
 }
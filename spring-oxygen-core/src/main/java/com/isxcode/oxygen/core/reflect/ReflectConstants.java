@@ -29,6 +29,12 @@ public interface ReflectConstants {
 	/** integer */
 	String INTEGER = "java.lang.Integer";
 
+	/** long */
+	String LONG = "java.lang.Long";
+
+	/** big_decimal */
+	String BIG_DECIMAL = "java.math.BigDecimal";
+
 	/** Boolean */
 	String BOOLEAN = "java.lang.Boolean";
 
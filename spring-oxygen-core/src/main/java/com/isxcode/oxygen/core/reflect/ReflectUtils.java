@@ -70,6 +70,8 @@ public static List<FieldBody> queryFields(Class<?> targetClass) {
 						readMethod.getDeclaringClass().getDeclaredField(propertyMeta.getName()));
 				fieldBodyBuilder.readMethod(readMethod);
 				fieldBodyBuilder.writeMethod(propertyMeta.getWriteMethod());
+				fieldBodyBuilder.getter(AccessorFactory.getter(readMethod));
+				fieldBodyBuilder.setter(AccessorFactory.setter(propertyMeta.getWriteMethod()));
 				fieldBodyBuilder.className(propertyMeta.getPropertyType().getName());
 				fieldBodyList.add(fieldBodyBuilder.build());
 			} catch (NoSuchFieldException e) {
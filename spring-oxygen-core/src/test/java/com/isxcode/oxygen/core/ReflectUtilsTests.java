@@ -1,11 +1,15 @@
 package com.isxcode.oxygen.core;
 
 import com.isxcode.oxygen.core.pojo.Dog;
+import com.isxcode.oxygen.core.reflect.AccessorFactory;
 import com.isxcode.oxygen.core.reflect.FieldBody;
 import com.isxcode.oxygen.core.reflect.ReflectUtils;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 public class ReflectUtilsTests {
@@ -49,4 +53,42 @@ public void testName() {
 
 		System.out.println(ReflectUtils.lineToHump("user_name"));
 	}
+
+	@Test
+	public void testAccessorFactory() throws NoSuchMethodException {
+
+		// public class by lambda, private class by method handle
+		Function<Object, Object> getter = AccessorFactory.getter(Dog.class.getMethod("getName"));
+		BiConsumer<Object, Object> setter =
+				AccessorFactory.setter(Dog.class.getMethod("setName", String.class));
+		Dog dog = new Dog();
+		setter.accept(dog, "alen");
+		Assertions.assertEquals("alen", getter.apply(dog));
+
+		Function<Object, Object> privateGetter =
+				AccessorFactory.getter(PrivateCat.class.getDeclaredMethod("getName"));
+		Assertions.assertEquals("tom", privateGetter.apply(new PrivateCat("tom")));
+		IllegalStateException exception =
+				Assertions.assertThrows(
+						IllegalStateException.class, () -> privateGetter.apply(new PrivateCat(null)));
+		Assertions.assertEquals("no name", exception.getMessage());
+	}
+
+	private static class PrivateCat {
+
+		private final String name;
+
+		private PrivateCat(String name) {
+
+			this.name = name;
+		}
+
+		private String getName() {
+
+			if (name == null) {
+				throw new IllegalStateException("no name");
+			}
+			return name;
+		}
+	}
 }
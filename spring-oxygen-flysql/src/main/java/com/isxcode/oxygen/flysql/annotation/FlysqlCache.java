@@ -0,0 +1,22 @@
+package com.isxcode.oxygen.flysql.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * cache select result of the table, invalidated when flysql writes the table
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface FlysqlCache {
+
+	/**
+	 * time to live
+	 *
+	 * @return seconds
+	 */
+	long ttl() default 60;
+}
@@ -0,0 +1,52 @@
+package com.isxcode.oxygen.flysql.annotation;
+
+import com.isxcode.oxygen.flysql.core.FlysqlShardFunction;
+import com.isxcode.oxygen.flysql.enums.ShardStrategy;
+import java.lang.annotation.*;
+
+/**
+ * split rows of the table across datasources by shard key
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface FlysqlShard {
+
+	/**
+	 * property name of shard key
+	 *
+	 * @return property name
+	 */
+	String key();
+
+	/**
+	 * datasource name of each shard, primary for spring datasource
+	 *
+	 * @return datasource names
+	 */
+	String[] datasources();
+
+	/**
+	 * how to choose shard by key
+	 *
+	 * @return strategy
+	 */
+	ShardStrategy strategy() default ShardStrategy.HASH;
+
+	/**
+	 * exclusive upper bound of each shard for RANGE, the last shard takes the rest
+	 *
+	 * @return bounds
+	 */
+	long[] ranges() default {};
+
+	/**
+	 * shard function for CUSTOM
+	 *
+	 * @return function class, with constructor without args
+	 */
+	Class<? extends FlysqlShardFunction> function() default FlysqlShardFunction.class;
+}
@@ -5,9 +5,15 @@
 import com.isxcode.oxygen.flysql.properties.FlysqlProperties;
 import com.isxcode.oxygen.flysql.response.GlobalExceptionAdvice;
 import com.isxcode.oxygen.flysql.response.SuccessResponseAdvice;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import javax.sql.DataSource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
 import org.springframework.boot.autoconfigure.mongo.MongoProperties;
@@ -49,16 +55,22 @@ private GlobalExceptionAdvice initGlobalExceptionAdvice() {
 	 * 初始化flysql factory
 	 *
 	 * @param flysqlProperties configs
+	 * @param dataSource spring datasource, reused as primary
 	 * @param dataSourceProperties dataSourceProperties
 	 * @param mongoTemplate mongoTemplate
+	 * @param pageExecutor custom page executor
+	 * @param asyncExecutor custom async executor
 	 * @since 0.0.1
 	 */
 	@Bean("flysql")
 	@ConditionalOnClass(FlysqlAutoConfiguration.class)
 	private Flysql flysql(
 			FlysqlProperties flysqlProperties,
+			ObjectProvider<DataSource> dataSource,
 			@Nullable DataSourceProperties dataSourceProperties,
-			@Nullable MongoTemplate mongoTemplate) {
+			@Nullable MongoTemplate mongoTemplate,
+			@Nullable @Qualifier(FlysqlConstants.PAGE_EXECUTOR_NAME) Executor pageExecutor,
+			@Nullable @Qualifier(FlysqlConstants.ASYNC_EXECUTOR_NAME) Executor asyncExecutor) {
 
 		Map<String, JdbcTemplate> jdbcTemplateMap;
 		Map<String, MongoTemplate> mongoTemplateMap;
@@ -71,10 +83,16 @@ private Flysql flysql(
 			jdbcTemplateMap = new HashMap<>(dataSourcePropertiesMap.size() + 1);
 			dataSourcePropertiesMap.forEach(
 					(k, v) ->
-							jdbcTemplateMap.put(k, new JdbcTemplate(v.initializeDataSourceBuilder().build())));
+							jdbcTemplateMap.put(
+									k, new JdbcTemplate(initHikariDataSource(k, v, flysqlProperties.getHikari()))));
 		}
 
-		if (dataSourceProperties != null
+		// 复用spring的数据源,不再创建新的连接池
+		DataSource primaryDataSource = dataSource.getIfUnique();
+		if (primaryDataSource != null) {
+			jdbcTemplateMap.put(
+					FlysqlConstants.PRIMARY_DATASOURCE_NAME, new JdbcTemplate(primaryDataSource));
+		} else if (dataSourceProperties != null
 				&& dataSourceProperties.initializeDataSourceBuilder() != null) {
 			jdbcTemplateMap.put(
 					FlysqlConstants.PRIMARY_DATASOURCE_NAME,
@@ -114,6 +132,40 @@ private Flysql flysql(
 		}
 
 		// 储存关系型数据库和非关系型数据库
-		return new Flysql(jdbcTemplateMap, mongoTemplateMap, flysqlProperties);
+		return new Flysql(
+				jdbcTemplateMap, mongoTemplateMap, flysqlProperties, pageExecutor, asyncExecutor);
+	}
+
+	/**
+	 * hikari pool of named datasource
+	 *
+	 * @param name datasource name
+	 * @param dataSourceProperties dataSourceProperties
+	 * @param hikariConfigMap pool configs
+	 * @return HikariDataSource
+	 * @since 1.11.0
+	 */
+	private static HikariDataSource initHikariDataSource(
+			String name,
+			DataSourceProperties dataSourceProperties,
+			@Nullable Map<String, HikariConfig> hikariConfigMap) {
+
+		HikariConfig hikariConfig = new HikariConfig();
+		if (hikariConfigMap != null && hikariConfigMap.get(name) != null) {
+			hikariConfigMap.get(name).copyStateTo(hikariConfig);
+		}
+
+		hikariConfig.setJdbcUrl(dataSourceProperties.determineUrl());
+		hikariConfig.setUsername(dataSourceProperties.determineUsername());
+		hikariConfig.setPassword(dataSourceProperties.determinePassword());
+		hikariConfig.setDriverClassName(dataSourceProperties.determineDriverClassName());
+		if (hikariConfig.getPoolName() == null) {
+			hikariConfig.setPoolName("flysql-" + name);
+		}
+
+		// pool starts on first connection, not when flysql starts
+		HikariDataSource hikariDataSource = new HikariDataSource();
+		hikariConfig.copyStateTo(hikariDataSource);
+		return hikariDataSource;
 	}
 }
@@ -11,9 +11,18 @@ public interface FlysqlConstants {
 	/** 默认数据库名称 */
 	String PRIMARY_DATASOURCE_NAME = "oxygen_primary_database_name";
 
+	/** replicas key of spring datasource */
+	String PRIMARY_REPLICA_KEY = "primary";
+
 	/** default view name */
 	String PRIMARY_VIEW_NAME = "primary";
 
+	/** bean name of custom page executor */
+	String PAGE_EXECUTOR_NAME = "flysqlPageExecutor";
+
+	/** bean name of custom async executor */
+	String ASYNC_EXECUTOR_NAME = "flysqlAsyncExecutor";
+
 	/** replace key */
 	String SELECT_REPLACE_CONTENT = "##flysql_columns_info##";
 
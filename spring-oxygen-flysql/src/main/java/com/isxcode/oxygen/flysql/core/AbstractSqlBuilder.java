@@ -4,18 +4,24 @@
 import com.isxcode.oxygen.core.reflect.ReflectConstants;
 import com.isxcode.oxygen.flysql.constant.FlysqlConstants;
 import com.isxcode.oxygen.flysql.entity.ColumnProperties;
+import com.isxcode.oxygen.flysql.entity.EntityMetadata;
+import com.isxcode.oxygen.flysql.entity.EntityProperty;
 import com.isxcode.oxygen.flysql.entity.SqlCondition;
+import com.isxcode.oxygen.flysql.enums.ColumnRole;
 import com.isxcode.oxygen.flysql.enums.DataBaseType;
 import com.isxcode.oxygen.flysql.enums.OrderType;
 import com.isxcode.oxygen.flysql.enums.SqlOperateType;
-import com.isxcode.oxygen.flysql.utils.FlysqlUtils;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import com.isxcode.oxygen.flysql.parse.SqlValue;
+import com.isxcode.oxygen.flysql.parse.SqlValueFactory;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
 
@@ -34,12 +40,46 @@
 
 	public final Map<String, ColumnProperties> columnsMap;
 
+	public final EntityMetadata entityMetadata;
+
 	public final DataBaseType dataBaseType;
 
+	public final boolean preparedStatement;
+
+	/** in list longer than it binds one array or splits into chunks */
+	public final int inListThreshold;
+
+	/** version() is used */
+	public boolean versionGuard;
+
+	/** shard key values in eq() and in(), null when not filtered by shard key */
+	public List<Object> shardKeyValues;
+
+	/** Map[alias, aggregate sql], for having() and orderBy() */
+	public final Map<String, String> aggregateColumns = new HashMap<>();
+
 	public AbstractSqlBuilder(Class<?> genericType, DataBaseType dataBaseType) {
 
+		this(genericType, dataBaseType, false);
+	}
+
+	public AbstractSqlBuilder(
+			Class<?> genericType, DataBaseType dataBaseType, boolean preparedStatement) {
+
+		this(genericType, dataBaseType, preparedStatement, Integer.MAX_VALUE);
+	}
+
+	public AbstractSqlBuilder(
+			Class<?> genericType,
+			DataBaseType dataBaseType,
+			boolean preparedStatement,
+			int inListThreshold) {
+
 		this.dataBaseType = dataBaseType;
-		this.columnsMap = FlysqlUtils.parseBeanProperties(genericType);
+		this.preparedStatement = preparedStatement;
+		this.inListThreshold = inListThreshold;
+		this.entityMetadata = EntityMetadataRegistry.getMetadata(genericType);
+		this.columnsMap = entityMetadata.getColumnsMap();
 	}
 
 	/**
@@ -53,6 +93,12 @@ public AbstractSqlBuilder(Class<?> genericType, DataBaseType dataBaseType) {
 	@Override
 	public T select(String... columnNames) {
 
+		if (DataBaseType.MONGO.equals(dataBaseType)) {
+			sqlConditions.add(
+					new SqlCondition(SqlOperateType.SELECT, "", String.join(",", columnNames)));
+			return getSelf();
+		}
+
 		List<String> columnNameList = new ArrayList<>(columnNames.length);
 		for (String columnName : columnNames) {
 			columnNameList.add(getColumnName(columnName) + " " + columnName);
@@ -87,13 +133,14 @@ public T and() {
 	@Override
 	public T eq(String columnName, Object value) {
 
+		addShardKeyValues(columnName, Collections.singletonList(value));
+
 		if (DataBaseType.MONGO.equals(dataBaseType)) {
 			sqlConditions.add(new SqlCondition(SqlOperateType.EQ, columnName, value));
 			return getSelf();
 		}
 
-		sqlConditions.add(
-				new SqlCondition(SqlOperateType.EQ, getColumnName(columnName), addSingleQuote(value)));
+		sqlConditions.add(bindCondition(SqlOperateType.EQ, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
@@ -159,6 +206,18 @@ public T isDeleted() {
 		return getSelf();
 	}
 
+	@Override
+	public T version(Object version) {
+
+		EntityProperty versionProperty = entityMetadata.getProperty(ColumnRole.VERSION);
+		if (versionProperty == null) {
+			throw new OxygenException("has not @Version column");
+		}
+
+		versionGuard = true;
+		return eq(versionProperty.getName(), version);
+	}
+
 	@Override
 	public T ne(String columnName, Object value) {
 
@@ -167,8 +226,7 @@ public T ne(String columnName, Object value) {
 			return getSelf();
 		}
 
-		sqlConditions.add(
-				new SqlCondition(SqlOperateType.NE, getColumnName(columnName), addSingleQuote(value)));
+		sqlConditions.add(bindCondition(SqlOperateType.NE, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
@@ -180,8 +238,7 @@ public T gt(String columnName, Object value) {
 			return getSelf();
 		}
 
-		sqlConditions.add(
-				new SqlCondition(SqlOperateType.GT, getColumnName(columnName), addSingleQuote(value)));
+		sqlConditions.add(bindCondition(SqlOperateType.GT, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
@@ -193,8 +250,7 @@ public T gtEq(String columnName, Object value) {
 			return getSelf();
 		}
 
-		sqlConditions.add(
-				new SqlCondition(SqlOperateType.GT_EQ, getColumnName(columnName), addSingleQuote(value)));
+		sqlConditions.add(bindCondition(SqlOperateType.GT_EQ, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
@@ -206,8 +262,7 @@ public T lt(String columnName, Object value) {
 			return getSelf();
 		}
 
-		sqlConditions.add(
-				new SqlCondition(SqlOperateType.LT, getColumnName(columnName), addSingleQuote(value)));
+		sqlConditions.add(bindCondition(SqlOperateType.LT, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
@@ -219,23 +274,20 @@ public T ltEq(String columnName, Object value) {
 			return getSelf();
 		}
 
-		sqlConditions.add(
-				new SqlCondition(SqlOperateType.LT_EQ, getColumnName(columnName), addSingleQuote(value)));
+		sqlConditions.add(bindCondition(SqlOperateType.LT_EQ, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
-	private List<String> parseInValues(Object... values) {
+	private List<Object> parseInValues(Object... values) {
 
-		List<String> inValues = new ArrayList<>();
+		List<Object> inValues = new ArrayList<>();
 		Arrays.stream(values)
 				.forEach(
 						value -> {
 							if (value instanceof List) {
-								List<String> tmpValues =
-										Arrays.stream(values).map(String::valueOf).collect(Collectors.toList());
-								tmpValues.forEach(v -> inValues.add(addSingleQuote(v)));
+								inValues.addAll((List<?>) value);
 							} else {
-								inValues.add(addSingleQuote(value));
+								inValues.add(value);
 							}
 						});
 		return inValues;
@@ -245,18 +297,15 @@ private List<String> parseInValues(Object... values) {
 	public T in(String columnName, Object... values) {
 
 		if (DataBaseType.MONGO.equals(dataBaseType)) {
-			sqlConditions.add(new SqlCondition(SqlOperateType.IN, columnName, Arrays.asList(values)));
+			sqlConditions.add(new SqlCondition(SqlOperateType.IN, columnName, parseInValues(values)));
 			return getSelf();
 		}
 
-		List<String> inValues = parseInValues(values);
+		List<Object> inValues = parseInValues(values);
 
 		if (!inValues.isEmpty()) {
-			sqlConditions.add(
-					new SqlCondition(
-							SqlOperateType.IN,
-							getColumnName(columnName),
-							"(" + Strings.join(inValues, ',') + ")"));
+			addShardKeyValues(columnName, inValues);
+			sqlConditions.add(bindInCondition(SqlOperateType.IN, getColumnName(columnName), inValues));
 		}
 		return getSelf();
 	}
@@ -265,18 +314,15 @@ public T in(String columnName, Object... values) {
 	public T notIn(String columnName, Object... values) {
 
 		if (DataBaseType.MONGO.equals(dataBaseType)) {
-			sqlConditions.add(new SqlCondition(SqlOperateType.NOT_IN, columnName, Arrays.asList(values)));
+			sqlConditions.add(new SqlCondition(SqlOperateType.NOT_IN, columnName, parseInValues(values)));
 			return getSelf();
 		}
 
-		List<String> inValues = parseInValues(values);
+		List<Object> inValues = parseInValues(values);
 
 		if (!inValues.isEmpty()) {
 			sqlConditions.add(
-					new SqlCondition(
-							SqlOperateType.NOT_IN,
-							getColumnName(columnName),
-							"(" + Strings.join(inValues, ',') + ")"));
+					bindInCondition(SqlOperateType.NOT_IN, getColumnName(columnName), inValues));
 		}
 		return getSelf();
 	}
@@ -285,10 +331,8 @@ public T notIn(String columnName, Object... values) {
 	public T between(String columnName, Object value1, Object value2) {
 
 		sqlConditions.add(
-				new SqlCondition(
-						SqlOperateType.BETWEEN,
-						getColumnName(columnName),
-						addSingleQuote(value1) + " and " + addSingleQuote(value2)));
+				bindCondition(
+						SqlOperateType.BETWEEN, getColumnName(columnName), "? and ?", value1, value2));
 		return getSelf();
 	}
 
@@ -296,16 +340,24 @@ public T between(String columnName, Object value1, Object value2) {
 	public T notBetween(String columnName, Object value1, Object value2) {
 
 		sqlConditions.add(
-				new SqlCondition(
-						SqlOperateType.NOT_BETWEEN,
-						getColumnName(columnName),
-						addSingleQuote(value1) + " and " + addSingleQuote(value2)));
+				bindCondition(
+						SqlOperateType.NOT_BETWEEN, getColumnName(columnName), "? and ?", value1, value2));
 		return getSelf();
 	}
 
 	@Override
 	public T orderBy(String columnName, OrderType orderType) {
 
+		if (DataBaseType.MONGO.equals(dataBaseType)) {
+			sqlOrderByConditions.add(columnName + " " + orderType.getOrderType());
+			return getSelf();
+		}
+
+		if (aggregateColumns.containsKey(columnName)) {
+			sqlOrderByConditions.add(aggregateColumns.get(columnName) + " " + orderType.getOrderType());
+			return getSelf();
+		}
+
 		sqlOrderByConditions.add(getColumnName(columnName) + " " + orderType.getOrderType());
 		return getSelf();
 	}
@@ -314,8 +366,7 @@ public T orderBy(String columnName, OrderType orderType) {
 	public T like(String columnName, String value) {
 
 		sqlConditions.add(
-				new SqlCondition(
-						SqlOperateType.LIKE, getColumnName(columnName), addSingleQuote(("%" + value + "%"))));
+				bindCondition(SqlOperateType.LIKE, getColumnName(columnName), "?", "%" + value + "%"));
 		return getSelf();
 	}
 
@@ -323,10 +374,8 @@ public T like(String columnName, String value) {
 	public T notLike(String columnName, String value) {
 
 		sqlConditions.add(
-				new SqlCondition(
-						SqlOperateType.NOT_LIKE,
-						getColumnName(columnName),
-						addSingleQuote(("%" + value + "%"))));
+				bindCondition(
+						SqlOperateType.NOT_LIKE, getColumnName(columnName), "?", "%" + value + "%"));
 		return getSelf();
 	}
 
@@ -340,6 +389,22 @@ public T limit(Integer value) {
 	@Override
 	public T update(String columnName, Object value) {
 
+		if (DataBaseType.MONGO.equals(dataBaseType)) {
+			sqlConditions.add(new SqlCondition(SqlOperateType.UPDATE, columnName, value));
+			return getSelf();
+		}
+
+		if (value == null) {
+			sqlConditions.add(new SqlCondition(SqlOperateType.UPDATE, getColumnName(columnName), null));
+			return getSelf();
+		}
+
+		if (preparedStatement) {
+			sqlConditions.add(
+					bindCondition(SqlOperateType.UPDATE, getColumnName(columnName), "?", value));
+			return getSelf();
+		}
+
 		if (ReflectConstants.DATE.equals(columnsMap.get(columnName).getType())) {
 			SimpleDateFormat sdf = new SimpleDateFormat("EEE MMM dd HH:mm:ss zzz yyyy");
 			SimpleDateFormat sdf2 = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -356,7 +421,7 @@ public T update(String columnName, Object value) {
 		}
 
 		sqlConditions.add(
-				new SqlCondition(SqlOperateType.UPDATE, getColumnName(columnName), addSingleQuote(value)));
+				bindCondition(SqlOperateType.UPDATE, getColumnName(columnName), "?", value));
 		return getSelf();
 	}
 
@@ -395,6 +460,221 @@ public T andEnd() {
 		return this.getSelf();
 	}
 
+	@Override
+	public T groupBy(String... columnNames) {
+
+		if (DataBaseType.MONGO.equals(dataBaseType)) {
+			throw new OxygenException("groupBy not support mongodb");
+		}
+
+		List<String> groupList = new ArrayList<>(columnNames.length);
+		List<String> selectList = new ArrayList<>(columnNames.length);
+		for (String columnName : columnNames) {
+			groupList.add(getColumnName(columnName));
+			selectList.add(getColumnName(columnName) + " " + columnName);
+		}
+		sqlConditions.add(
+				new SqlCondition(
+						SqlOperateType.GROUP_BY,
+						Strings.join(groupList, ','),
+						Strings.join(selectList, ',')));
+		return getSelf();
+	}
+
+	@Override
+	public T sum(String columnName, String alias) {
+
+		return aggregate("sum", columnName, alias);
+	}
+
+	@Override
+	public T avg(String columnName, String alias) {
+
+		return aggregate("avg", columnName, alias);
+	}
+
+	@Override
+	public T min(String columnName, String alias) {
+
+		return aggregate("min", columnName, alias);
+	}
+
+	@Override
+	public T max(String columnName, String alias) {
+
+		return aggregate("max", columnName, alias);
+	}
+
+	@Override
+	public T having(String alias, SqlOperateType operateType, Object value) {
+
+		String aggregateSql = aggregateColumns.get(alias);
+		if (aggregateSql == null) {
+			throw new OxygenException("has not aggregate " + alias + ", please call sum() before");
+		}
+
+		switch (operateType) {
+			case EQ:
+			case NE:
+			case GT:
+			case GT_EQ:
+			case LT:
+			case LT_EQ:
+				// alias is not allowed in having of oracle and sql server, use the aggregate
+				sqlConditions.add(
+						bindCondition(
+								SqlOperateType.HAVING, aggregateSql + operateType.getCode(), "?", value));
+				return getSelf();
+			default:
+				throw new OxygenException("having not support " + operateType);
+		}
+	}
+
+	/**
+	 * select aggregate of column, rendered by dialect
+	 *
+	 * @param function sum, avg, min or max
+	 * @param columnName columnName
+	 * @param alias alias
+	 * @return self
+	 * @since 1.11.0
+	 */
+	private T aggregate(String function, String columnName, String alias) {
+
+		if (DataBaseType.MONGO.equals(dataBaseType)) {
+			throw new OxygenException(function + " not support mongodb");
+		}
+
+		String aggregateSql =
+				SqlValueFactory.getSqlValue(dataBaseType)
+						.getAggregateSql(function, getColumnName(columnName));
+		aggregateColumns.put(alias, aggregateSql);
+		sqlConditions.add(new SqlCondition(SqlOperateType.SELECT, "", aggregateSql + " " + alias));
+		return getSelf();
+	}
+
+	/**
+	 * bind in list, large list binds one array when database supports, else splits into chunks,
+	 * list longer than the bind parameter limit is rejected in prepared mode
+	 *
+	 * @param operateType IN or NOT_IN
+	 * @param columnName columnName
+	 * @param inValues inValues
+	 * @return SqlCondition
+	 * @since 1.11.0
+	 */
+	public SqlCondition bindInCondition(
+			SqlOperateType operateType, String columnName, List<Object> inValues) {
+
+		SqlValue sqlValue = SqlValueFactory.getSqlValue(dataBaseType);
+		boolean in = operateType == SqlOperateType.IN;
+
+		// one array parameter, same sql for any list size
+		if (inValues.size() > inListThreshold && preparedStatement && sqlValue.supportArrayIn()) {
+			return new SqlCondition(
+					SqlOperateType.IN_LIST,
+					"",
+					in ? columnName + " = any(?)" : "not (" + columnName + " = any(?))",
+					Collections.singletonList(inValues.toArray()));
+		}
+
+		int chunkSize = Math.min(inListThreshold, sqlValue.getMaxInValues());
+		if (inValues.size() <= chunkSize) {
+			return bindCondition(
+					operateType,
+					columnName,
+					"(" + String.join(",", Collections.nCopies(inValues.size(), "?")) + ")",
+					inValues.toArray());
+		}
+
+		// (k in (...) or k in (...)), not in joined by and
+		List<String> chunkList = new ArrayList<>();
+		for (int i = 0; i < inValues.size(); i += chunkSize) {
+			int chunkValues = Math.min(chunkSize, inValues.size() - i);
+			chunkList.add(
+					columnName
+							+ operateType.getCode()
+							+ "("
+							+ String.join(",", Collections.nCopies(chunkValues, "?"))
+							+ ")");
+		}
+		String template = "(" + String.join(in ? " or " : " and ", chunkList) + ")";
+
+		// inlined values would give each list size its own sql in the sql cache
+		if (preparedStatement && inValues.size() > sqlValue.getMaxParameters()) {
+			throw new FlysqlException(
+					"in list of "
+							+ inValues.size()
+							+ " values is more than "
+							+ sqlValue.getMaxParameters()
+							+ " bind parameters of "
+							+ dataBaseType
+							+ ", call in() with smaller batches");
+		}
+		return bindCondition(SqlOperateType.IN_LIST, "", template, inValues.toArray());
+	}
+
+	/**
+	 * collect shard key values, to route the query to their shards
+	 *
+	 * @param columnName property name
+	 * @param values values
+	 * @since 1.11.0
+	 */
+	private void addShardKeyValues(String columnName, List<Object> values) {
+
+		if (entityMetadata.getFlysqlShard() == null
+				|| !entityMetadata.getFlysqlShard().key().equals(columnName)) {
+			return;
+		}
+		if (shardKeyValues == null) {
+			shardKeyValues = new ArrayList<>();
+		}
+		shardKeyValues.addAll(values);
+	}
+
+	/**
+	 * bind condition values, placeholder with parameters in prepared mode, otherwise inline values
+	 *
+	 * @param operateType operateType
+	 * @param columnName columnName
+	 * @param template value template, each ? for one value
+	 * @param values values
+	 * @return SqlCondition
+	 * @since 1.11.0
+	 */
+	public SqlCondition bindCondition(
+			SqlOperateType operateType, String columnName, String template, Object... values) {
+
+		if (preparedStatement) {
+			return new SqlCondition(operateType, columnName, template, Arrays.asList(values));
+		}
+
+		return new SqlCondition(operateType, columnName, inlineValues(template, values));
+	}
+
+	/**
+	 * replace each ? of template by quoted value
+	 *
+	 * @param template template
+	 * @param values values
+	 * @return sql
+	 * @since 1.11.0
+	 */
+	private static String inlineValues(String template, Object... values) {
+
+		StringBuilder valueBuilder = new StringBuilder();
+		int index = 0;
+		for (char metaChar : template.toCharArray()) {
+			if (metaChar == '?') {
+				valueBuilder.append(addSingleQuote(values[index++]));
+			} else {
+				valueBuilder.append(metaChar);
+			}
+		}
+		return valueBuilder.toString();
+	}
+
 	/**
 	 * add single quote
 	 *
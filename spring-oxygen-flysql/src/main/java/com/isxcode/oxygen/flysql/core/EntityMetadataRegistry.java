@@ -0,0 +1,126 @@
+package com.isxcode.oxygen.flysql.core;
+
+import com.isxcode.oxygen.core.reflect.FieldBody;
+import com.isxcode.oxygen.core.reflect.ReflectUtils;
+import com.isxcode.oxygen.flysql.annotation.*;
+import com.isxcode.oxygen.flysql.entity.ColumnProperties;
+import com.isxcode.oxygen.flysql.entity.EntityMetadata;
+import com.isxcode.oxygen.flysql.entity.EntityProperty;
+import com.isxcode.oxygen.flysql.enums.ColumnRole;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import com.isxcode.oxygen.flysql.utils.FlysqlUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * entity metadata registry, reflect once for each class
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class EntityMetadataRegistry {
+
+	private static final Map<Class<?>, EntityMetadata> ENTITY_METADATA_MAP =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * get entity metadata
+	 *
+	 * @param targetClass targetClass
+	 * @return EntityMetadata
+	 * @since 1.11.0
+	 */
+	public static EntityMetadata getMetadata(Class<?> targetClass) {
+
+		return ENTITY_METADATA_MAP.computeIfAbsent(targetClass, EntityMetadataRegistry::parseMetadata);
+	}
+
+	/**
+	 * remove all metadata, for class reload
+	 *
+	 * @since 1.11.0
+	 */
+	public static void clear() {
+
+		ENTITY_METADATA_MAP.clear();
+	}
+
+	private static EntityMetadata parseMetadata(Class<?> targetClass) {
+
+		Map<String, ColumnProperties> columnsMap =
+				new LinkedHashMap<>(FlysqlUtils.parseBeanProperties(targetClass));
+
+		List<EntityProperty> properties = new ArrayList<>();
+		for (FieldBody metaFieldBody : ReflectUtils.queryFields(targetClass)) {
+			Field metaField = metaFieldBody.getField();
+			ColumnProperties columnProperties = columnsMap.get(metaField.getName());
+			properties.add(
+					new EntityProperty(
+							metaField.getName(),
+							columnProperties.getName(),
+							metaFieldBody.getClassName(),
+							parseColumnRole(metaField),
+							metaFieldBody));
+		}
+
+		List<FlysqlView> flysqlViews = new ArrayList<>();
+		if (targetClass.isAnnotationPresent(FlysqlViews.class)) {
+			flysqlViews.addAll(Arrays.asList(targetClass.getAnnotation(FlysqlViews.class).value()));
+		}
+		if (targetClass.isAnnotationPresent(FlysqlView.class)) {
+			flysqlViews.add(targetClass.getAnnotation(FlysqlView.class));
+		}
+
+		FlysqlShard flysqlShard = targetClass.getAnnotation(FlysqlShard.class);
+		if (flysqlShard != null) {
+			if (!columnsMap.containsKey(flysqlShard.key())) {
+				throw new FlysqlException(
+						"shard key " + flysqlShard.key() + " is not a property of " + targetClass.getName());
+			}
+			if (flysqlShard.datasources().length == 0) {
+				throw new FlysqlException("no shard datasources of " + targetClass.getName());
+			}
+		}
+
+		return new EntityMetadata(
+				targetClass,
+				FlysqlUtils.getTableName(targetClass),
+				Collections.unmodifiableMap(columnsMap),
+				Collections.unmodifiableList(properties),
+				Collections.unmodifiableList(flysqlViews),
+				targetClass.getAnnotation(FlysqlCache.class),
+				flysqlShard);
+	}
+
+	private static ColumnRole parseColumnRole(Field field) {
+
+		if (field.isAnnotationPresent(CreatedBy.class)) {
+			return ColumnRole.CREATED_BY;
+		}
+		if (field.isAnnotationPresent(LastModifiedBy.class)) {
+			return ColumnRole.LAST_MODIFIED_BY;
+		}
+		if (field.isAnnotationPresent(CreatedDate.class)) {
+			return ColumnRole.CREATED_DATE;
+		}
+		if (field.isAnnotationPresent(LastModifiedDate.class)) {
+			return ColumnRole.LAST_MODIFIED_DATE;
+		}
+		if (field.isAnnotationPresent(Version.class)) {
+			return ColumnRole.VERSION;
+		}
+		if (field.isAnnotationPresent(IsDelete.class)) {
+			return ColumnRole.IS_DELETE;
+		}
+		if (field.isAnnotationPresent(RowId.class)) {
+			return ColumnRole.ROW_ID;
+		}
+		return ColumnRole.NORMAL;
+	}
+}
@@ -1,8 +1,20 @@
 package com.isxcode.oxygen.flysql.core;
 
+import com.isxcode.oxygen.flysql.annotation.FlysqlShard;
 import com.isxcode.oxygen.flysql.constant.FlysqlConstants;
+import com.isxcode.oxygen.flysql.entity.FlysqlPoolStats;
+import com.isxcode.oxygen.flysql.enums.DataBaseType;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
 import com.isxcode.oxygen.flysql.properties.FlysqlProperties;
+import com.isxcode.oxygen.flysql.utils.FlysqlUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import javax.sql.DataSource;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -21,6 +33,33 @@ public class Flysql {
 	/** storage mongo template */
 	private final Map<String, MongoTemplate> mongdTemplateMap;
 
+	/** storage jdbc template of replicas for select, by datasource name */
+	private final Map<String, JdbcTemplate> readJdbcTemplateMap = new HashMap<>();
+
+	/** storage database type, resolved once per datasource */
+	private final Map<String, DataBaseType> dataBaseTypeMap = new ConcurrentHashMap<>();
+
+	/** storage rendered sql by query shape */
+	private final FlysqlSqlCache sqlCache;
+
+	/** run count query of queryPage, null when not concurrent */
+	private final Executor pageExecutor;
+
+	/** run async queries */
+	private final Executor asyncExecutor;
+
+	/** query shards in parallel */
+	private final Executor shardExecutor;
+
+	/** executors created by flysql, shutdown when close */
+	private final List<Executor> flysqlExecutors = new ArrayList<>();
+
+	/** query counts */
+	private final FlysqlMetrics metrics = new FlysqlMetrics();
+
+	/** storage select result of @FlysqlCache table */
+	private final FlysqlResultCache resultCache;
+
 	/** flysql config */
 	public final FlysqlProperties flysqlProperties;
 
@@ -29,9 +68,86 @@ public Flysql(
 			Map<String, MongoTemplate> mongdTemplateMap,
 			FlysqlProperties flysqlProperties) {
 
+		this(jdbcTemplateMap, mongdTemplateMap, flysqlProperties, null, null);
+	}
+
+	public Flysql(
+			Map<String, JdbcTemplate> jdbcTemplateMap,
+			Map<String, MongoTemplate> mongdTemplateMap,
+			FlysqlProperties flysqlProperties,
+			Executor pageExecutor,
+			Executor asyncExecutor) {
+
 		this.flysqlProperties = flysqlProperties;
 		this.mongdTemplateMap = mongdTemplateMap;
 		this.jdbcTemplateMap = jdbcTemplateMap;
+		this.sqlCache = new FlysqlSqlCache(flysqlProperties.getSqlCacheSize());
+		this.resultCache = new FlysqlResultCache(flysqlProperties.getResultCacheSize());
+
+		if (!Boolean.TRUE.equals(flysqlProperties.getPageConcurrent())) {
+			this.pageExecutor = null;
+		} else if (pageExecutor == null) {
+			this.pageExecutor = FlysqlUtils.newPageExecutor(flysqlProperties.getPageThreads());
+			flysqlExecutors.add(this.pageExecutor);
+		} else {
+			this.pageExecutor = pageExecutor;
+		}
+
+		if (asyncExecutor == null) {
+			this.asyncExecutor = FlysqlUtils.newAsyncExecutor(flysqlProperties.getAsyncThreads());
+			flysqlExecutors.add(this.asyncExecutor);
+		} else {
+			this.asyncExecutor = asyncExecutor;
+		}
+
+		this.shardExecutor = FlysqlUtils.newShardExecutor(flysqlProperties.getShardThreads());
+		flysqlExecutors.add(this.shardExecutor);
+
+		if (flysqlProperties.getReplicas() != null) {
+			flysqlProperties.getReplicas().forEach(this::initReplicas);
+		}
+	}
+
+	/**
+	 * route select of datasource to its replicas
+	 *
+	 * @param dataBaseName dataBaseName, primary for spring datasource
+	 * @param replicaNames replica datasource names
+	 * @since 1.11.0
+	 */
+	private void initReplicas(String dataBaseName, List<String> replicaNames) {
+
+		if (FlysqlConstants.PRIMARY_REPLICA_KEY.equals(dataBaseName)
+				&& !jdbcTemplateMap.containsKey(dataBaseName)) {
+			dataBaseName = FlysqlConstants.PRIMARY_DATASOURCE_NAME;
+		}
+
+		List<FlysqlReplicaDataSource.Replica> replicas = new ArrayList<>();
+		for (String replicaName : replicaNames) {
+			JdbcTemplate replicaTemplate = jdbcTemplateMap.get(replicaName);
+			if (replicaTemplate == null) {
+				throw new FlysqlException("replica datasource " + replicaName + " is not exist");
+			}
+			replicas.add(
+					new FlysqlReplicaDataSource.Replica(replicaName, replicaTemplate.getDataSource()));
+		}
+
+		JdbcTemplate jdbcTemplate = jdbcTemplateMap.get(dataBaseName);
+		if (jdbcTemplate == null) {
+			throw new FlysqlException("datasource " + dataBaseName + " is not exist");
+		}
+		if (replicas.isEmpty()) {
+			return;
+		}
+
+		readJdbcTemplateMap.put(
+				dataBaseName,
+				new JdbcTemplate(
+						new FlysqlReplicaDataSource(
+								jdbcTemplate.getDataSource(),
+								replicas,
+								flysqlProperties.getReplicaBalance(),
+								flysqlProperties.getReplicaDownMillis())));
 	}
 
 	/**
@@ -52,7 +168,11 @@ public FlysqlBuilder build() {
 	 */
 	public FlysqlBuilder build(String dataBaseName) {
 
-		return new FlysqlBuilder(jdbcTemplateMap.get(dataBaseName), flysqlProperties);
+		return new FlysqlBuilder(
+				jdbcTemplateMap.get(dataBaseName),
+				readJdbcTemplateMap.get(dataBaseName),
+				getDataBaseType(dataBaseName),
+				this);
 	}
 
 	/**
@@ -73,7 +193,7 @@ public FlysqlBuilder buildMongo() {
 	 */
 	public FlysqlBuilder buildMongo(String dataBaseName) {
 
-		return new FlysqlBuilder(mongdTemplateMap.get(dataBaseName), flysqlProperties);
+		return new FlysqlBuilder(mongdTemplateMap.get(dataBaseName), this);
 	}
 
 	/**
@@ -85,4 +205,184 @@ public DataSource getDefaultDataSource() {
 
 		return jdbcTemplateMap.get(FlysqlConstants.PRIMARY_DATASOURCE_NAME).getDataSource();
 	}
+
+	/**
+	 * get datasource database type, config first then detect by connection
+	 *
+	 * @param dataBaseName dataBaseName
+	 * @return DataBaseType
+	 * @since 1.11.0
+	 */
+	public DataBaseType getDataBaseType(String dataBaseName) {
+
+		return dataBaseTypeMap.computeIfAbsent(
+				dataBaseName,
+				name -> {
+					Map<String, DataBaseType> dialectMap = flysqlProperties.getDialect();
+					if (dialectMap != null && dialectMap.get(name) != null) {
+						return dialectMap.get(name);
+					}
+					JdbcTemplate jdbcTemplate = jdbcTemplateMap.get(name);
+					if (jdbcTemplate == null) {
+						throw new FlysqlException("datasource " + name + " is not exist");
+					}
+					return FlysqlUtils.parseDataBaseType(jdbcTemplate);
+				});
+	}
+
+	/**
+	 * get sql cache, for hit and miss counts
+	 *
+	 * @return FlysqlSqlCache
+	 * @since 1.11.0
+	 */
+	public FlysqlSqlCache getSqlCache() {
+
+		return sqlCache;
+	}
+
+	/**
+	 * get result cache, for hit and miss counts
+	 *
+	 * @return FlysqlResultCache
+	 * @since 1.11.0
+	 */
+	public FlysqlResultCache getResultCache() {
+
+		return resultCache;
+	}
+
+	/**
+	 * get page executor, null when not concurrent
+	 *
+	 * @return Executor
+	 * @since 1.11.0
+	 */
+	public Executor getPageExecutor() {
+
+		return pageExecutor;
+	}
+
+	/**
+	 * get replica jdbc template for select
+	 *
+	 * @param dataBaseName dataBaseName
+	 * @return JdbcTemplate, null when no replica
+	 * @since 1.11.0
+	 */
+	public JdbcTemplate getReadJdbcTemplate(String dataBaseName) {
+
+		return readJdbcTemplateMap.get(dataBaseName);
+	}
+
+	/**
+	 * get jdbc template of each shard
+	 *
+	 * @param flysqlShard flysqlShard
+	 * @param read use replicas when exist
+	 * @return jdbc templates in shard order
+	 * @since 1.11.0
+	 */
+	public List<JdbcTemplate> getShardJdbcTemplates(FlysqlShard flysqlShard, boolean read) {
+
+		List<JdbcTemplate> shardJdbcTemplates = new ArrayList<>(flysqlShard.datasources().length);
+		for (String dataBaseName : flysqlShard.datasources()) {
+			if (FlysqlConstants.PRIMARY_REPLICA_KEY.equals(dataBaseName)
+					&& !jdbcTemplateMap.containsKey(dataBaseName)) {
+				dataBaseName = FlysqlConstants.PRIMARY_DATASOURCE_NAME;
+			}
+			JdbcTemplate jdbcTemplate =
+					read && readJdbcTemplateMap.containsKey(dataBaseName)
+							? readJdbcTemplateMap.get(dataBaseName)
+							: jdbcTemplateMap.get(dataBaseName);
+			if (jdbcTemplate == null) {
+				throw new FlysqlException("shard datasource " + dataBaseName + " is not exist");
+			}
+			shardJdbcTemplates.add(jdbcTemplate);
+		}
+		return shardJdbcTemplates;
+	}
+
+	/**
+	 * get shard executor
+	 *
+	 * @return Executor
+	 * @since 1.11.0
+	 */
+	public Executor getShardExecutor() {
+
+		return shardExecutor;
+	}
+
+	/**
+	 * get hikari pool stats of each datasource
+	 *
+	 * @return Map[datasource name, stats]
+	 * @since 1.11.0
+	 */
+	public Map<String, FlysqlPoolStats> getPoolStats() {
+
+		Map<String, FlysqlPoolStats> poolStatsMap = new HashMap<>();
+		jdbcTemplateMap.forEach(
+				(name, jdbcTemplate) -> {
+					FlysqlPoolStats poolStats = FlysqlUtils.getPoolStats(jdbcTemplate.getDataSource());
+					if (poolStats != null) {
+						poolStatsMap.put(name, poolStats);
+					}
+				});
+		return poolStatsMap;
+	}
+
+	/**
+	 * close pools and executors created by flysql, spring datasource and given executors are not
+	 * closed
+	 *
+	 * @since 1.11.0
+	 */
+	public void close() {
+
+		flysqlExecutors.forEach(
+				executor -> {
+					if (executor instanceof ExecutorService) {
+						((ExecutorService) executor).shutdown();
+					}
+				});
+
+		if (flysqlProperties.getDatasource() == null) {
+			return;
+		}
+		flysqlProperties
+				.getDatasource()
+				.keySet()
+				.forEach(
+						name -> {
+							JdbcTemplate jdbcTemplate = jdbcTemplateMap.get(name);
+							if (jdbcTemplate != null
+									&& jdbcTemplate.getDataSource() instanceof HikariDataSource) {
+								((HikariDataSource) jdbcTemplate.getDataSource()).close();
+							}
+						});
+	}
+
+	/**
+	 * get async executor
+	 *
+	 * @return Executor
+	 * @since 1.11.0
+	 */
+	public Executor getAsyncExecutor() {
+
+		return asyncExecutor;
+	}
+
+	/**
+	 * get query counts
+	 *
+	 * @return FlysqlMetrics
+	 * @since 1.11.0
+	 */
+	public FlysqlMetrics getMetrics() {
+
+		return metrics;
+	}
 }
@@ -1,14 +1,11 @@
 package com.isxcode.oxygen.flysql.core;
 
-import com.isxcode.oxygen.flysql.constant.FlysqlConstants;
+import com.isxcode.oxygen.flysql.annotation.FlysqlShard;
 import com.isxcode.oxygen.flysql.entity.FlysqlKey;
 import com.isxcode.oxygen.flysql.enums.DataBaseType;
 import com.isxcode.oxygen.flysql.enums.SqlType;
-import com.isxcode.oxygen.flysql.exception.FlysqlException;
 import com.isxcode.oxygen.flysql.properties.FlysqlProperties;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Objects;
+import com.isxcode.oxygen.flysql.utils.FlysqlUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -28,51 +25,62 @@ public class FlysqlBuilder {
 
 	private final FlysqlProperties flysqlProperties;
 
+	/** replicas for select, null when no replica */
+	private JdbcTemplate readJdbcTemplate;
+
+	/** resolved once, detect by connection only when not given */
+	private DataBaseType dataBaseType;
+
+	/** shared sql cache, executor and metrics */
+	private Flysql flysql;
+
 	public FlysqlBuilder(MongoTemplate mongoTemplate, FlysqlProperties flysqlProperties) {
 
 		this.mongoTemplate = mongoTemplate;
 		this.flysqlProperties = flysqlProperties;
 	}
 
+	public FlysqlBuilder(MongoTemplate mongoTemplate, Flysql flysql) {
+
+		this.mongoTemplate = mongoTemplate;
+		this.flysqlProperties = flysql.flysqlProperties;
+		this.flysql = flysql;
+	}
+
 	public FlysqlBuilder(JdbcTemplate jdbcTemplate, FlysqlProperties flysqlProperties) {
 
 		this.jdbcTemplate = jdbcTemplate;
 		this.flysqlProperties = flysqlProperties;
 	}
 
+	public FlysqlBuilder(JdbcTemplate jdbcTemplate, DataBaseType dataBaseType, Flysql flysql) {
+
+		this(jdbcTemplate, null, dataBaseType, flysql);
+	}
+
+	public FlysqlBuilder(
+			JdbcTemplate jdbcTemplate,
+			JdbcTemplate readJdbcTemplate,
+			DataBaseType dataBaseType,
+			Flysql flysql) {
+
+		this.jdbcTemplate = jdbcTemplate;
+		this.readJdbcTemplate = readJdbcTemplate;
+		this.dataBaseType = dataBaseType;
+		this.flysqlProperties = flysql.flysqlProperties;
+		this.flysql = flysql;
+	}
+
 	public DataBaseType getDataBaseType() {
 
 		if (mongoTemplate != null) {
 			return DataBaseType.MONGO;
-		} else {
-			Connection connection = null;
-			try {
-				connection = Objects.requireNonNull(jdbcTemplate.getDataSource()).getConnection();
-				String databaseName = connection.getMetaData().getDatabaseProductName();
-				switch (databaseName) {
-					case FlysqlConstants.ORACLE_DB:
-						return DataBaseType.ORACLE;
-					case FlysqlConstants.H2_DB:
-						return DataBaseType.H2;
-					case FlysqlConstants.SQL_SERVER_DB:
-						return DataBaseType.SQL_SERVER;
-					case FlysqlConstants.MYSQL_DB:
-					default:
-						return DataBaseType.MYSQL;
-				}
-			} catch (SQLException e) {
-				log.error(e.getMessage());
-				throw new FlysqlException("datasource link error");
-			} finally {
-				if (connection != null) {
-					try {
-						connection.close();
-					} catch (SQLException e) {
-						log.error(e.getMessage());
-					}
-				}
-			}
 		}
+
+		if (dataBaseType == null) {
+			dataBaseType = FlysqlUtils.parseDataBaseType(jdbcTemplate);
+		}
+		return dataBaseType;
 	}
 
 	/**
@@ -85,15 +93,7 @@ public DataBaseType getDataBaseType() {
 	 */
 	public <A> FlysqlExecute<A> insert(Class<A> targetClass) {
 
-		if (jdbcTemplate == null) {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							DataBaseType.MONGO, SqlType.INSERT, mongoTemplate, targetClass, flysqlProperties));
-		} else {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							getDataBaseType(), SqlType.INSERT, jdbcTemplate, targetClass, flysqlProperties));
-		}
+		return new FlysqlExecute<>(initFlysqlKey(SqlType.INSERT, targetClass));
 	}
 
 	/**
@@ -106,15 +106,7 @@ public <A> FlysqlExecute<A> insert(Class<A> targetClass) {
 	 */
 	public <A> FlysqlExecute<A> delete(Class<A> targetClass) {
 
-		if (jdbcTemplate == null) {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							DataBaseType.MONGO, SqlType.DELETE, mongoTemplate, targetClass, flysqlProperties));
-		} else {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							getDataBaseType(), SqlType.DELETE, jdbcTemplate, targetClass, flysqlProperties));
-		}
+		return new FlysqlExecute<>(initFlysqlKey(SqlType.DELETE, targetClass));
 	}
 
 	/**
@@ -127,15 +119,7 @@ public <A> FlysqlExecute<A> delete(Class<A> targetClass) {
 	 */
 	public <A> FlysqlExecute<A> update(Class<A> targetClass) {
 
-		if (jdbcTemplate == null) {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							DataBaseType.MONGO, SqlType.UPDATE, mongoTemplate, targetClass, flysqlProperties));
-		} else {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							getDataBaseType(), SqlType.UPDATE, jdbcTemplate, targetClass, flysqlProperties));
-		}
+		return new FlysqlExecute<>(initFlysqlKey(SqlType.UPDATE, targetClass));
 	}
 
 	/**
@@ -148,15 +132,7 @@ public <A> FlysqlExecute<A> update(Class<A> targetClass) {
 	 */
 	public <A> FlysqlExecute<A> view(Class<A> targetClass) {
 
-		if (jdbcTemplate == null) {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							DataBaseType.MONGO, SqlType.VIEW, mongoTemplate, targetClass, flysqlProperties));
-		} else {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							getDataBaseType(), SqlType.VIEW, jdbcTemplate, targetClass, flysqlProperties));
-		}
+		return new FlysqlExecute<>(initFlysqlKey(SqlType.VIEW, targetClass));
 	}
 
 	/**
@@ -169,14 +145,49 @@ public <A> FlysqlExecute<A> view(Class<A> targetClass) {
 	 */
 	public <A> FlysqlExecute<A> select(Class<A> targetClass) {
 
+		return new FlysqlExecute<>(initFlysqlKey(SqlType.SELECT, targetClass));
+	}
+
+	/**
+	 * init flysql key
+	 *
+	 * @param <A> A
+	 * @param sqlType sqlType
+	 * @param targetClass targetClass
+	 * @return FlysqlKey
+	 * @since 1.11.0
+	 */
+	private <A> FlysqlKey<A> initFlysqlKey(SqlType sqlType, Class<A> targetClass) {
+
 		if (jdbcTemplate == null) {
-			return new FlysqlExecute<>(
+			FlysqlKey<A> flysqlKey =
 					new FlysqlKey<>(
-							DataBaseType.MONGO, SqlType.SELECT, mongoTemplate, targetClass, flysqlProperties));
+							DataBaseType.MONGO, sqlType, mongoTemplate, targetClass, flysqlProperties);
+			if (flysql != null) {
+				flysqlKey.setAsyncExecutor(flysql.getAsyncExecutor());
+			}
+			return flysqlKey;
 		} else {
-			return new FlysqlExecute<>(
-					new FlysqlKey<>(
-							getDataBaseType(), SqlType.SELECT, jdbcTemplate, targetClass, flysqlProperties));
+			// writes always use primary, each query chooses replica when it runs
+			FlysqlKey<A> flysqlKey =
+					new FlysqlKey<>(getDataBaseType(), sqlType, jdbcTemplate, targetClass, flysqlProperties);
+			flysqlKey.setReadJdbcTemplate(readJdbcTemplate);
+			if (flysql != null) {
+				flysqlKey.setSqlCache(flysql.getSqlCache());
+				flysqlKey.setPageExecutor(flysql.getPageExecutor());
+				flysqlKey.setAsyncExecutor(flysql.getAsyncExecutor());
+				flysqlKey.setMetrics(flysql.getMetrics());
+				flysqlKey.setResultCache(flysql.getResultCache());
+
+				// sharded table ignores datasource of builder, all shards share its dialect
+				FlysqlShard flysqlShard = EntityMetadataRegistry.getMetadata(targetClass).getFlysqlShard();
+				if (flysqlShard != null) {
+					flysqlKey.setShardJdbcTemplates(flysql.getShardJdbcTemplates(flysqlShard, false));
+					flysqlKey.setReadShardJdbcTemplates(flysql.getShardJdbcTemplates(flysqlShard, true));
+					flysqlKey.setShardExecutor(flysql.getShardExecutor());
+				}
+			}
+			return flysqlKey;
 		}
 	}
 }
@@ -1,6 +1,7 @@
 package com.isxcode.oxygen.flysql.core;
 
 import com.isxcode.oxygen.flysql.enums.OrderType;
+import com.isxcode.oxygen.flysql.enums.SqlOperateType;
 
 /**
  * sql condition
@@ -257,6 +258,16 @@
 	 */
 	T isDeleted();
 
+	/**
+	 * update only when @Version column equals, doUpdate() throws
+	 * FlysqlOptimisticLockException when no row updated
+	 *
+	 * @param version version read before update
+	 * @return se
+	 * @since 1.11.0
+	 */
+	T version(Object version);
+
 	/**
 	 * andStart()
 	 *
@@ -272,4 +283,64 @@
 	 * @since 0.0.1
 	 */
 	T andEnd();
+
+	/**
+	 * groupBy('A','B'), the group columns are selected too
+	 *
+	 * @param columnNames columnNames
+	 * @return self
+	 * @since 1.11.0
+	 */
+	T groupBy(String... columnNames);
+
+	/**
+	 * select sum(column) alias
+	 *
+	 * @param columnName columnName
+	 * @param alias alias, the name of dto field
+	 * @return self
+	 * @since 1.11.0
+	 */
+	T sum(String columnName, String alias);
+
+	/**
+	 * select avg(column) alias
+	 *
+	 * @param columnName columnName
+	 * @param alias alias, the name of dto field
+	 * @return self
+	 * @since 1.11.0
+	 */
+	T avg(String columnName, String alias);
+
+	/**
+	 * select min(column) alias
+	 *
+	 * @param columnName columnName
+	 * @param alias alias, the name of dto field
+	 * @return self
+	 * @since 1.11.0
+	 */
+	T min(String columnName, String alias);
+
+	/**
+	 * select max(column) alias
+	 *
+	 * @param columnName columnName
+	 * @param alias alias, the name of dto field
+	 * @return self
+	 * @since 1.11.0
+	 */
+	T max(String columnName, String alias);
+
+	/**
+	 * having aggregate, like having('total', SqlOperateType.GT, 100)
+	 *
+	 * @param alias alias of sum(), avg(), min() or max() before
+	 * @param operateType EQ, NE, GT, GT_EQ, LT or LT_EQ
+	 * @param value value
+	 * @return self
+	 * @since 1.11.0
+	 */
+	T having(String alias, SqlOperateType operateType, Object value);
 }
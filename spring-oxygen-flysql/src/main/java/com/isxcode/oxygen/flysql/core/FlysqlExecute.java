@@ -2,38 +2,78 @@
 
 import static com.isxcode.oxygen.flysql.enums.SqlOperateType.*;
 
-import com.isxcode.oxygen.core.reflect.FieldBody;
 import com.isxcode.oxygen.core.reflect.ReflectConstants;
-import com.isxcode.oxygen.core.reflect.ReflectUtils;
 import com.isxcode.oxygen.core.snowflake.SnowflakeUtils;
-import com.isxcode.oxygen.flysql.annotation.*;
+import com.isxcode.oxygen.flysql.annotation.FlysqlView;
 import com.isxcode.oxygen.flysql.common.OxygenHolder;
 import com.isxcode.oxygen.flysql.constant.FlysqlConstants;
+import com.isxcode.oxygen.flysql.entity.EntityProperty;
 import com.isxcode.oxygen.flysql.entity.FlysqlKey;
+import com.isxcode.oxygen.flysql.entity.FlysqlKeysetPage;
 import com.isxcode.oxygen.flysql.entity.FlysqlPage;
 import com.isxcode.oxygen.flysql.entity.SqlCondition;
+import com.isxcode.oxygen.flysql.enums.ColumnRole;
+import com.isxcode.oxygen.flysql.enums.OrderType;
 import com.isxcode.oxygen.flysql.enums.SqlOperateType;
 import com.isxcode.oxygen.flysql.enums.SqlType;
 import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import com.isxcode.oxygen.flysql.exception.FlysqlOptimisticLockException;
+import com.isxcode.oxygen.flysql.exception.FlysqlShardException;
 import com.isxcode.oxygen.flysql.parse.SqlValue;
 import com.isxcode.oxygen.flysql.parse.SqlValueFactory;
 import com.isxcode.oxygen.flysql.utils.FlysqlUtils;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import com.mongodb.bulk.BulkWriteResult;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.data.util.StreamUtils;
 import org.springframework.jdbc.BadSqlGrammarException;
-import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.PreparedStatementCreatorFactory;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.SqlParameter;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * flysql 执行逻辑实现
@@ -50,7 +90,11 @@
 
 	public FlysqlExecute(FlysqlKey<A> flysqlKey) {
 
-		super(flysqlKey.getTargetClass(), flysqlKey.getDataBaseType());
+		super(
+				flysqlKey.getTargetClass(),
+				flysqlKey.getDataBaseType(),
+				Boolean.TRUE.equals(flysqlKey.getFlysqlProperties().getPreparedStatement()),
+				flysqlKey.getFlysqlProperties().getInListThreshold());
 		this.flysqlKey = flysqlKey;
 	}
 
@@ -65,60 +109,315 @@ public FlysqlExecute<A> getSelf() {
 	@Override
 	public A getOne() {
 
-		String sqlString =
-				parseSqlConditions(initSelectSql(), sqlConditions, sqlOrderByConditions, "SELECT");
+		List<A> result = queryFirstRows(1);
+		return result.isEmpty() ? null : result.get(0);
+	}
 
-		printSql(sqlString);
+	@Override
+	public A getExactlyOne() {
+
+		// read two rows is enough to know it is not unique
+		List<A> result = queryFirstRows(2);
+		if (result.size() != 1) {
+			throw new FlysqlException("expected exactly one row, but found " + result.size());
+		}
+		return result.get(0);
+	}
+
+	@Override
+	public Optional<A> findFirst() {
+
+		return Optional.ofNullable(getOne());
+	}
+
+	/**
+	 * select the first rows, push limit to database when no limit() or sql() is used
+	 *
+	 * @param rows max rows
+	 * @return list[data]
+	 * @since 1.11.0
+	 */
+	public List<A> queryFirstRows(int rows) {
+
+		if (isSharded()) {
+			return mergeShardRows(queryShards(e -> e.queryFirstRows(rows)), rows);
+		}
 
 		try {
-			return flysqlKey
-					.getJdbcTemplate()
-					.queryForObject(sqlString, new BeanPropertyRowMapper<>(flysqlKey.getTargetClass()));
+			if (flysqlKey.getJdbcTemplate() == null) {
+				Query query = initMongoQuery();
+				query.limit(query.getLimit() > 0 ? Math.min(query.getLimit(), rows) : rows);
+				return flysqlKey
+						.getMongoTemplate()
+						.find(
+								query,
+								flysqlKey.getTargetClass(),
+								Objects.requireNonNull(entityMetadata.getTableName()));
+			}
+
+			// limit on a copy, the builder can query again
+			List<SqlCondition> limitConditions = new ArrayList<>(sqlConditions);
+			boolean limitFlag = false;
+			for (SqlCondition sqlConditionMeta : sqlConditions) {
+				if (sqlConditionMeta.getOperateType() == LIMIT
+						|| sqlConditionMeta.getOperateType() == SQL) {
+					limitFlag = true;
+					break;
+				}
+			}
+			if (!limitFlag) {
+				limitConditions.add(new SqlCondition(LIMIT, "", rows));
+			}
+
+			List<Object> sqlParameters = new ArrayList<>();
+			String sqlString =
+					parseSqlConditions(
+							initSelectSql(), sqlParameters, limitConditions, sqlOrderByConditions, "SELECT");
+
+			printSql(sqlString, sqlParameters);
+
+			return executeQuery(sqlString, sqlParameters, initRowMapper(), rows);
 		} catch (BadSqlGrammarException e) {
 			log.error(e.getMessage());
 			throw new FlysqlException(e.getCause().getMessage());
-		} catch (EmptyResultDataAccessException e) {
-			return null;
-		} catch (IncorrectResultSizeDataAccessException e) {
-			return flysqlKey
-					.getJdbcTemplate()
-					.query(sqlString, new BeanPropertyRowMapper<>(flysqlKey.getTargetClass()))
-					.get(0);
 		}
 	}
 
+	@Override
+	public CompletableFuture<A> getOneAsync() {
+
+		return supplyAsync(this::getOne);
+	}
+
+	@Override
+	public CompletableFuture<List<A>> queryAsync() {
+
+		return supplyAsync(this::query);
+	}
+
+	@Override
+	public CompletableFuture<FlysqlPage<A>> queryPageAsync(Integer page, Integer size) {
+
+		return supplyAsync(() -> queryPage(page, size));
+	}
+
+	@Override
+	public CompletableFuture<Integer> countAsync() {
+
+		return supplyAsync(this::count);
+	}
+
+	/**
+	 * run on async executor, not in the transaction of caller
+	 *
+	 * @param action action
+	 * @param <T> T
+	 * @return future
+	 * @since 1.11.0
+	 */
+	public <T> CompletableFuture<T> supplyAsync(Supplier<T> action) {
+
+		if (flysqlKey.getAsyncExecutor() == null) {
+			return CompletableFuture.supplyAsync(action);
+		}
+		return CompletableFuture.supplyAsync(action, flysqlKey.getAsyncExecutor());
+	}
+
 	@Override
 	public List<A> query() {
 
+		if (isSharded()) {
+			return mergeShardRows(queryShards(FlysqlExecute::query), 0);
+		}
+
 		try {
 			if (flysqlKey.getJdbcTemplate() == null) {
 				return flysqlKey
 						.getMongoTemplate()
 						.find(
-								new Query(parseSqlConditions(sqlConditions)),
+								initMongoQuery(),
 								flysqlKey.getTargetClass(),
-								Objects.requireNonNull(FlysqlUtils.getTableName(flysqlKey.getTargetClass())));
+								Objects.requireNonNull(entityMetadata.getTableName()));
 			} else {
+				List<Object> sqlParameters = new ArrayList<>();
 				String sqlString =
-						parseSqlConditions(initSelectSql(), sqlConditions, sqlOrderByConditions, "SELECT");
+						parseSqlConditions(
+								initSelectSql(), sqlParameters, sqlConditions, sqlOrderByConditions, "SELECT");
 
-				printSql(sqlString);
+				printSql(sqlString, sqlParameters);
 
-				// 基础类型返回
-				if (flysqlKey.getTargetClass().isInstance("") || flysqlKey.getTargetClass().isInstance(1)) {
-					return flysqlKey.getJdbcTemplate().queryForList(sqlString, flysqlKey.getTargetClass());
-				} else {
-					return flysqlKey
-							.getJdbcTemplate()
-							.query(sqlString, new BeanPropertyRowMapper<>(flysqlKey.getTargetClass()));
-				}
+				return executeQuery(sqlString, sqlParameters, initRowMapper());
+			}
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		}
+	}
+
+	@Override
+	public <T> List<T> into(Class<T> targetClass) {
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return flysqlKey
+					.getMongoTemplate()
+					.find(
+							initMongoQuery(), targetClass, Objects.requireNonNull(entityMetadata.getTableName()));
+		}
+		return queryProjection(FlysqlRowMapperRegistry.getProjectionRowMapper(targetClass));
+	}
+
+	@Override
+	public List<Map<String, Object>> queryMaps() {
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return new ArrayList<>(
+					flysqlKey
+							.getMongoTemplate()
+							.find(
+									initMongoQuery(),
+									Document.class,
+									Objects.requireNonNull(entityMetadata.getTableName())));
+		}
+		return queryProjection(new ColumnMapRowMapper());
+	}
+
+	@Override
+	public List<Object[]> queryTuples() {
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			throw new FlysqlException("tuple query not support mongodb");
+		}
+		return queryProjection(
+				(rs, rowNum) -> {
+					Object[] values = new Object[rs.getMetaData().getColumnCount()];
+					for (int i = 0; i < values.length; i++) {
+						values[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+					}
+					return values;
+				});
+	}
+
+	/**
+	 * select by row mapper, result not cached as it is not the entity
+	 *
+	 * @param rowMapper rowMapper
+	 * @param <T> T
+	 * @return list[data]
+	 * @since 1.11.0
+	 */
+	public <T> List<T> queryProjection(RowMapper<T> rowMapper) {
+
+		if (isSharded()) {
+			if (!sqlOrderByConditions.isEmpty() && getTargetShards().size() > 1) {
+				throw new FlysqlException("orderBy of projection not support multi shards");
+			}
+			// partial groups of each shard can not merge
+			if ((!aggregateColumns.isEmpty() || isGrouped(sqlConditions))
+					&& getTargetShards().size() > 1) {
+				throw new FlysqlException("aggregate not support multi shards");
 			}
+			List<T> result = new ArrayList<>();
+			queryShards(e -> e.queryProjection(rowMapper)).forEach(result::addAll);
+			int maxRows = getMergeLimit(0);
+			return maxRows > 0 && result.size() > maxRows
+					? new ArrayList<>(result.subList(0, maxRows))
+					: result;
+		}
+
+		try {
+			List<Object> sqlParameters = new ArrayList<>();
+			String sqlString =
+					parseSqlConditions(
+							initSelectSql(), sqlParameters, sqlConditions, sqlOrderByConditions, "SELECT");
+
+			printSql(sqlString, sqlParameters);
+
+			return doExecuteQuery(sqlString, sqlParameters, rowMapper, 0);
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		}
+	}
+
+	@Override
+	public Stream<A> stream() {
+
+		if (isSharded()) {
+			return initSingleShardExecute("stream").stream();
+		}
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return StreamUtils.createStreamFromIterator(cursor());
+		}
+
+		List<Object> sqlParameters = new ArrayList<>();
+		String sqlString =
+				parseSqlConditions(
+						initSelectSql(), sqlParameters, sqlConditions, sqlOrderByConditions, "SELECT");
+
+		printSql(sqlString, sqlParameters);
+
+		int fetchSize =
+				SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType())
+						.getStreamFetchSize(flysqlKey.getFlysqlProperties().getFetchSize());
+		PreparedStatementCreator statementCreator = initStatementCreator(sqlString, sqlParameters);
+
+		try {
+			return getQueryJdbcTemplate()
+					.queryForStream(
+							con -> {
+								PreparedStatement ps = statementCreator.createPreparedStatement(con);
+								ps.setFetchSize(fetchSize);
+								return ps;
+							},
+							initRowMapper());
 		} catch (BadSqlGrammarException e) {
 			log.error(e.getMessage());
 			throw new FlysqlException(e.getCause().getMessage());
 		}
 	}
 
+	@Override
+	public void forEach(Consumer<A> consumer) {
+
+		try (Stream<A> stream = stream()) {
+			stream.forEach(consumer);
+		}
+	}
+
+	@Override
+	public CloseableIterator<A> cursor() {
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return flysqlKey
+					.getMongoTemplate()
+					.stream(
+							initMongoQuery(),
+							flysqlKey.getTargetClass(),
+							Objects.requireNonNull(entityMetadata.getTableName()));
+		}
+
+		Stream<A> stream = stream();
+		Iterator<A> iterator = stream.iterator();
+		return new CloseableIterator<A>() {
+
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public A next() {
+				return iterator.next();
+			}
+
+			@Override
+			public void close() {
+				stream.close();
+			}
+		};
+	}
+
 	@Override
 	public FlysqlPage<A> queryPage(Integer page, Integer size) {
 
@@ -129,25 +428,100 @@ public FlysqlPage<A> queryPage(Integer page, Integer size) {
 			return pageResult;
 		}
 
+		if (isSharded()) {
+			return queryShardPage(page, size);
+		}
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return queryMongoPage(page, size);
+		}
+
+		List<Object> sqlPageParameters = new ArrayList<>();
 		String sqlPageString =
-				parseSqlConditions(initSelectSql(), sqlConditions, sqlOrderByConditions, "SELECT")
-						+ " limit "
-						+ (page - 1) * size
-						+ " , "
-						+ size;
+				SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType())
+						.getPageSql(
+								parseSqlConditions(
+										initSelectSql(),
+										sqlPageParameters,
+										sqlConditions,
+										sqlOrderByConditions,
+										"SELECT"),
+								(page - 1) * size,
+								size,
+								hasOrderBy());
+		List<Object> sqlCountParameters = new ArrayList<>();
 		String sqlCountString =
-				parseSqlConditions(initCountSql(), sqlConditions, sqlOrderByConditions, "COUNT");
-
-		printSql(sqlPageString);
-		printSql(sqlCountString);
+				parseSqlConditions(
+						initCountSql(), sqlCountParameters, sqlConditions, Collections.emptyList(), "COUNT");
+
+		printSql(sqlPageString, sqlPageParameters);
+		printSql(sqlCountString, sqlCountParameters);
+
+		FlysqlMetrics metrics =
+				flysqlKey.getMetrics() == null ? new FlysqlMetrics() : flysqlKey.getMetrics();
+		metrics.addPageQuery();
+
+		Supplier<List<A>> pageQuery =
+				() ->
+						executeQuery(
+								sqlPageString,
+								sqlPageParameters,
+								FlysqlRowMapperRegistry.getRowMapper(flysqlKey.getTargetClass()));
+		Supplier<Integer> countQuery =
+				() -> {
+					metrics.addCountQuery();
+					return executeQuery(
+									sqlCountString, sqlCountParameters, new SingleColumnRowMapper<>(Integer.class))
+							.get(0);
+				};
 
 		try {
-			pageResult.setPage(
-					flysqlKey
-							.getJdbcTemplate()
-							.query(sqlPageString, new BeanPropertyRowMapper<>(flysqlKey.getTargetClass())));
-			pageResult.setTotal(
-					flysqlKey.getJdbcTemplate().queryForObject(sqlCountString, Integer.class));
+			// page 1 shorter than size, the total is the page size
+			if (page == 1 && Boolean.TRUE.equals(flysqlKey.getFlysqlProperties().getPageSkipCount())) {
+				pageResult.setPage(pageQuery.get());
+				if (pageResult.getPage().size() < size) {
+					metrics.addSkipCountQuery();
+					pageResult.setTotal(pageResult.getPage().size());
+				} else {
+					pageResult.setTotal(countQuery.get());
+				}
+				return pageResult;
+			}
+
+			// count on other thread can not see writes of the caller's transaction
+			if (flysqlKey.getPageExecutor() == null
+					|| TransactionSynchronizationManager.isActualTransactionActive()) {
+				pageResult.setPage(pageQuery.get());
+				pageResult.setTotal(countQuery.get());
+				return pageResult;
+			}
+
+			// count on page executor, page on current thread
+			long startNanos = System.nanoTime();
+			CompletableFuture<long[]> countFuture =
+					CompletableFuture.supplyAsync(
+							() -> {
+								long countStartNanos = System.nanoTime();
+								int total = countQuery.get();
+								return new long[] {total, System.nanoTime() - countStartNanos};
+							},
+							flysqlKey.getPageExecutor());
+			pageResult.setPage(pageQuery.get());
+			long pageNanos = System.nanoTime() - startNanos;
+
+			long[] countResult;
+			try {
+				countResult = countFuture.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+			pageResult.setTotal((int) countResult[0]);
+			long serialNanos = pageNanos + countResult[1];
+			metrics.addConcurrentPage(
+					TimeUnit.NANOSECONDS.toMillis(serialNanos - (System.nanoTime() - startNanos)));
 			return pageResult;
 		} catch (BadSqlGrammarException e) {
 			log.error(e.getMessage());
@@ -155,29 +529,253 @@ public FlysqlPage<A> queryPage(Integer page, Integer size) {
 		}
 	}
 
+	/**
+	 * mongo page by skip and limit, count by criteria
+	 *
+	 * @param page page
+	 * @param size size
+	 * @return FlysqlPage
+	 * @since 1.11.0
+	 */
+	public FlysqlPage<A> queryMongoPage(Integer page, Integer size) {
+
+		String tableName = Objects.requireNonNull(entityMetadata.getTableName());
+		Query query = initMongoQuery().skip((long) (page - 1) * size).limit(size);
+
+		FlysqlPage<A> pageResult = new FlysqlPage<>();
+		pageResult.setPage(
+				flysqlKey.getMongoTemplate().find(query, flysqlKey.getTargetClass(), tableName));
+		if (page == 1
+				&& pageResult.getPage().size() < size
+				&& Boolean.TRUE.equals(flysqlKey.getFlysqlProperties().getPageSkipCount())) {
+			pageResult.setTotal(pageResult.getPage().size());
+		} else {
+			pageResult.setTotal(
+					(int)
+							flysqlKey
+									.getMongoTemplate()
+									.count(
+											new Query(parseSqlConditions(sqlConditions)),
+											flysqlKey.getTargetClass(),
+											tableName));
+		}
+		return pageResult;
+	}
+
+	@Override
+	public FlysqlKeysetPage<A> queryKeyset(Integer size, String token) {
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			throw new FlysqlException("keyset page not support mongodb");
+		}
+		if (size == null || size < 1) {
+			throw new FlysqlException("size must be greater than 0");
+		}
+		if (sqlOrderByConditions.isEmpty()) {
+			throw new FlysqlException("keyset page must orderBy");
+		}
+
+		// sort keys from orderBy
+		List<EntityProperty> keyProperties = new ArrayList<>();
+		List<Boolean> descList = new ArrayList<>();
+		for (String metaOrderBy : sqlOrderByConditions) {
+			int splitIndex = metaOrderBy.lastIndexOf(' ');
+			EntityProperty metaProperty =
+					entityMetadata.getColumnProperty(metaOrderBy.substring(0, splitIndex));
+			if (metaProperty == null) {
+				throw new FlysqlException(
+						metaOrderBy + " is not a column of " + entityMetadata.getTableName());
+			}
+			keyProperties.add(metaProperty);
+			descList.add(OrderType.DESC.getOrderType().equals(metaOrderBy.substring(splitIndex + 1)));
+		}
+
+		// seek and limit on a copy, the builder can query again
+		FlysqlExecute<A> keysetExecute = copyExecute();
+		if (token != null && !token.isEmpty()) {
+			List<Object> keyValues = FlysqlUtils.decodeKeyset(token, keyProperties);
+			groupWhereConditions(keysetExecute.sqlConditions);
+			keysetExecute.sqlConditions.add(initKeysetCondition(keyProperties, descList, keyValues));
+		}
+		keysetExecute.sqlConditions.add(new SqlCondition(SqlOperateType.LIMIT, "", size));
+
+		FlysqlKeysetPage<A> pageResult = new FlysqlKeysetPage<>();
+		pageResult.setPage(keysetExecute.query());
+
+		if (pageResult.getPage().size() == size) {
+			A lastRow = pageResult.getPage().get(size - 1);
+			List<Object> lastValues = new ArrayList<>();
+			for (EntityProperty metaProperty : keyProperties) {
+				Object metaValue = metaProperty.getFieldBody().getGetter().apply(lastRow);
+				if (metaValue == null) {
+					throw new FlysqlException("keyset column " + metaProperty.getColumnName() + " is null");
+				}
+				lastValues.add(metaValue);
+			}
+			pageResult.setNextToken(FlysqlUtils.encodeKeyset(lastValues));
+		}
+		return pageResult;
+	}
+
+	/**
+	 * copy of this executor, conditions added to the copy do not change this one
+	 *
+	 * @return FlysqlExecute
+	 * @since 1.11.0
+	 */
+	public FlysqlExecute<A> copyExecute() {
+
+		FlysqlExecute<A> copyExecute = new FlysqlExecute<>(flysqlKey);
+		copyExecute.sqlConditions.addAll(sqlConditions);
+		copyExecute.sqlOrderByConditions.addAll(sqlOrderByConditions);
+		copyExecute.aggregateColumns.putAll(aggregateColumns);
+		copyExecute.versionGuard = versionGuard;
+		copyExecute.shardKeyValues = shardKeyValues == null ? null : new ArrayList<>(shardKeyValues);
+		return copyExecute;
+	}
+
+	/**
+	 * wrap where conditions in one group, so or() branches are all bounded by the next condition
+	 *
+	 * @param sqlConditions conditions of a copied executor
+	 * @since 1.11.0
+	 */
+	public void groupWhereConditions(List<SqlCondition> sqlConditions) {
+
+		int firstIndex = -1;
+		int lastIndex = -1;
+		for (int i = 0; i < sqlConditions.size(); i++) {
+			switch (sqlConditions.get(i).getOperateType()) {
+				case SELECT:
+				case SET_VALUE:
+				case ORDER_BY:
+				case UPDATE:
+				case SQL:
+				case LIMIT:
+				case GROUP_BY:
+				case HAVING:
+					continue;
+				default:
+					firstIndex = firstIndex == -1 ? i : firstIndex;
+					lastIndex = i;
+			}
+		}
+		if (firstIndex == -1) {
+			return;
+		}
+		sqlConditions.add(lastIndex + 1, new SqlCondition(SqlOperateType.AND_END, "", ""));
+		sqlConditions.add(firstIndex, new SqlCondition(SqlOperateType.AND_START, "", ""));
+	}
+
+	/**
+	 * seek condition, (k1,k2) > (?,?) or k1 > ? or (k1 = ? and k2 > ?)
+	 *
+	 * @param keyProperties sort key properties
+	 * @param descList desc of each key
+	 * @param keyValues last row values
+	 * @return keyset condition
+	 * @since 1.11.0
+	 */
+	public SqlCondition initKeysetCondition(
+			List<EntityProperty> keyProperties, List<Boolean> descList, List<Object> keyValues) {
+
+		SqlValue sqlValue = SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType());
+
+		// row value compare, when all keys same order
+		if (keyProperties.size() > 1
+				&& sqlValue.supportRowValue()
+				&& !descList.contains(!descList.get(0))) {
+			List<String> columnList = new ArrayList<>();
+			keyProperties.forEach(e -> columnList.add(e.getColumnName()));
+			return bindCondition(
+					SqlOperateType.KEYSET,
+					"",
+					"("
+							+ Strings.join(columnList, ',')
+							+ (descList.get(0) ? ") < (" : ") > (")
+							+ Strings.join(Collections.nCopies(keyValues.size(), "?"), ',')
+							+ ")",
+					keyValues.toArray());
+		}
+
+		List<String> orList = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+		for (int i = 0; i < keyProperties.size(); i++) {
+			List<String> andList = new ArrayList<>();
+			for (int j = 0; j < i; j++) {
+				andList.add(keyProperties.get(j).getColumnName() + " = ?");
+				values.add(keyValues.get(j));
+			}
+			andList.add(keyProperties.get(i).getColumnName() + (descList.get(i) ? " < ?" : " > ?"));
+			values.add(keyValues.get(i));
+			orList.add("(" + String.join(" and ", andList) + ")");
+		}
+		return bindCondition(
+				SqlOperateType.KEYSET, "", "(" + String.join(" or ", orList) + ")", values.toArray());
+	}
+
 	@Override
 	public void doUpdate() {
 
+		if (flysqlKey.getJdbcTemplate() == null) {
+			if (mongoUpdateMulti(new Update()) == 0 && versionGuard) {
+				throw new FlysqlOptimisticLockException(
+						entityMetadata.getTableName() + " row not found or version changed");
+			}
+			return;
+		}
+
 		sqlConditions.add(
-				new SqlCondition(
-						UPDATE, FlysqlConstants.LAST_MODIFIED_BY, addSingleQuote(OxygenHolder.getUserUuid())));
+				bindCondition(
+						UPDATE, FlysqlConstants.LAST_MODIFIED_BY, "?", OxygenHolder.getUserUuid()));
 		sqlConditions.add(
-				new SqlCondition(
+				bindCondition(
 						UPDATE,
 						FlysqlConstants.LAST_MODIFIED_DATE,
-						addSingleQuote(
-								DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(LocalDateTime.now()))));
-		executeUpdate();
+						"?",
+						preparedStatement
+								? LocalDateTime.now()
+								: DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(LocalDateTime.now())));
+
+		EntityProperty versionProperty = entityMetadata.getProperty(ColumnRole.VERSION);
+		if (versionProperty != null) {
+			sqlConditions.add(
+					new SqlCondition(
+							UPDATE,
+							versionProperty.getColumnName(),
+							"coalesce(" + versionProperty.getColumnName() + ", 0) + 1"));
+		}
+
+		if (executeUpdate() == 0 && versionGuard) {
+			throw new FlysqlOptimisticLockException(
+					entityMetadata.getTableName() + " row not found or version changed");
+		}
 	}
 
-	private void executeUpdate() {
+	private int executeUpdate() {
+
+		if (isSharded()) {
+			int rows = 0;
+			for (Integer metaRows :
+					writeShards(getTargetShards(), e -> initShardExecute(e).executeUpdate())) {
+				rows += metaRows;
+			}
+			return rows;
+		}
+
+		List<Object> sqlParameters = new ArrayList<>();
 		String sqlString =
-				parseSqlConditions(initUpdateSql(), sqlConditions, sqlOrderByConditions, "UPADTE");
+				parseSqlConditions(
+						initUpdateSql(sqlParameters),
+						sqlParameters,
+						sqlConditions,
+						sqlOrderByConditions,
+						"UPADTE");
 
-		printSql(sqlString);
+		printSql(sqlString, sqlParameters);
 
 		try {
-			flysqlKey.getJdbcTemplate().update(sqlString);
+			return executeUpdate(sqlString, sqlParameters);
 		} catch (BadSqlGrammarException e) {
 			log.error(e.getMessage());
 			throw new FlysqlException(e.getCause().getMessage());
@@ -185,71 +783,733 @@ private void executeUpdate() {
 	}
 
 	@Override
-	public void batchSave(List<A> entity) {
+	public int[] batchSave(List<A> entity) {
 
-		String sqlString = initBatchSaveSql(entity);
+		return batchSave(entity, flysqlKey.getFlysqlProperties().getBatchSize());
+	}
 
-		printSql(sqlString);
+	@Override
+	public int[] batchSave(List<A> entity, int batchSize) {
 
-		try {
-			flysqlKey.getJdbcTemplate().execute(sqlString);
-		} catch (BadSqlGrammarException e) {
-			log.error(e.getMessage());
-			throw new FlysqlException(e.getCause().getMessage());
+		if (batchSize < 1) {
+			throw new FlysqlException("batchSize must be greater than 0");
+		}
+		if (entity == null || entity.isEmpty()) {
+			return new int[0];
 		}
-	}
 
-	@Override
-	public void save(A entity) {
+		if (isSharded()) {
+			int metaBatchSize = batchSize;
+			return executeShardBatch(entity, (e, rows) -> e.batchSave(rows, metaBatchSize));
+		}
 
-		String sqlString = initSaveSql(entity);
+		if (flysqlKey.getJdbcTemplate() == null) {
+			int[] result = new int[(entity.size() + batchSize - 1) / batchSize];
+			for (int i = 0; i < result.length; i++) {
+				List<A> metaBatch =
+						entity.subList(i * batchSize, Math.min(entity.size(), (i + 1) * batchSize));
+				metaBatch.forEach(this::initSaveValues);
+				result[i] = initBulkOperations().insert(metaBatch).execute().getInsertedCount();
+			}
+			return result;
+		}
 
-		printSql(sqlString);
+		List<EntityProperty> properties = entityMetadata.getProperties();
+		SqlValue sqlValue = SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType());
+		int[] argTypes = initArgTypes(properties);
 
 		try {
-			if (flysqlKey.getJdbcTemplate() == null) {
-				flysqlKey
-						.getMongoTemplate()
-						.save(
-								entity,
-								Objects.requireNonNull(FlysqlUtils.getTableName(flysqlKey.getTargetClass())));
-			} else {
-				flysqlKey.getJdbcTemplate().execute(sqlString);
+			if (Boolean.TRUE.equals(flysqlKey.getFlysqlProperties().getBatchMultiValues())
+					&& sqlValue.supportMultiValues()) {
+
+				// one multi-row insert for each batch, keep under the bind parameter limit
+				batchSize =
+						Math.max(1, Math.min(batchSize, sqlValue.getMaxParameters() / properties.size()));
+				int[] result = new int[(entity.size() + batchSize - 1) / batchSize];
+				for (int i = 0; i < result.length; i++) {
+					List<A> metaBatch =
+							entity.subList(i * batchSize, Math.min(entity.size(), (i + 1) * batchSize));
+					String sqlString = initPreparedSaveSql(properties, metaBatch.size());
+					printSql(sqlString + " <== " + metaBatch.size() + " rows");
+
+					List<Object> sqlParameters = new ArrayList<>(metaBatch.size() * properties.size());
+					for (A metaEntity : metaBatch) {
+						sqlParameters.addAll(Arrays.asList(generateSqlParameters(metaEntity, properties)));
+					}
+					result[i] =
+							flysqlKey
+									.getJdbcTemplate()
+									.update(
+											sqlString,
+											ps -> {
+												for (int j = 0; j < sqlParameters.size(); j++) {
+													StatementCreatorUtils.setParameterValue(
+															ps, j + 1, argTypes[j % argTypes.length], sqlParameters.get(j));
+												}
+											});
+				}
+				return result;
 			}
+
+			return executeBatchUpdate(initPreparedSaveSql(properties, 1), entity, batchSize, properties);
 		} catch (BadSqlGrammarException e) {
 			log.error(e.getMessage());
 			throw new FlysqlException(e.getCause().getMessage());
+		} finally {
+			invalidateResultCache();
 		}
 	}
 
 	@Override
-	public void doDelete() {
+	public void upsert(A entity) {
 
-		String sqlString =
-				parseSqlConditions(initDeleteSql(), sqlConditions, sqlOrderByConditions, "DELETE");
+		batchUpsert(Collections.singletonList(entity), 1);
+	}
 
-		printSql(sqlString);
+	@Override
+	public int[] batchUpsert(List<A> entity) {
 
-		try {
-			flysqlKey.getJdbcTemplate().update(sqlString);
-		} catch (BadSqlGrammarException e) {
-			log.error(e.getMessage());
-			throw new FlysqlException(e.getCause().getMessage());
-		}
+		return batchUpsert(entity, flysqlKey.getFlysqlProperties().getBatchSize());
 	}
 
 	@Override
-	public void doIsDelete() {
+	public int[] batchUpsert(List<A> entity, int batchSize) {
 
-		sqlConditions.add(
-				new SqlCondition(
-						UPDATE, FlysqlConstants.LAST_MODIFIED_BY, addSingleQuote(OxygenHolder.getUserUuid())));
-		sqlConditions.add(
-				new SqlCondition(
-						UPDATE,
-						FlysqlConstants.LAST_MODIFIED_DATE,
-						addSingleQuote(
-								DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(LocalDateTime.now()))));
+		if (batchSize < 1) {
+			throw new FlysqlException("batchSize must be greater than 0");
+		}
+		if (entity == null || entity.isEmpty()) {
+			return new int[0];
+		}
+
+		if (isSharded()) {
+			return executeShardBatch(entity, (e, rows) -> e.batchUpsert(rows, batchSize));
+		}
+
+		// the caller keeps the generated row id, to upsert the same row again
+		EntityProperty keyProperty = getRowIdProperty();
+		entity.forEach(metaEntity -> initRowId(metaEntity, keyProperty));
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return mongoUpsert(entity, batchSize, keyProperty);
+		}
+
+		// created and deleted columns only insert, version add 1 when update
+		List<EntityProperty> properties = entityMetadata.getProperties();
+		List<String> columns = new ArrayList<>();
+		List<String> updateColumns = new ArrayList<>();
+		List<String> versionColumns = new ArrayList<>();
+		for (EntityProperty metaProperty : properties) {
+			columns.add(metaProperty.getColumnName());
+			switch (metaProperty.getRole()) {
+				case ROW_ID:
+				case CREATED_BY:
+				case CREATED_DATE:
+				case IS_DELETE:
+					break;
+				case VERSION:
+					versionColumns.add(metaProperty.getColumnName());
+					break;
+				default:
+					updateColumns.add(metaProperty.getColumnName());
+			}
+		}
+
+		String sqlString =
+				SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType())
+						.getUpsertSql(
+								entityMetadata.getTableName(),
+								columns,
+								keyProperty.getColumnName(),
+								updateColumns,
+								versionColumns);
+
+		try {
+			return executeBatchUpdate(sqlString, entity, batchSize, properties);
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		} finally {
+			invalidateResultCache();
+		}
+	}
+
+	@Override
+	public int[] batchUpdate(List<A> entity) {
+
+		return batchUpdate(entity, false);
+	}
+
+	@Override
+	public int[] batchUpdate(List<A> entity, boolean ignoreNull) {
+
+		if (entity == null || entity.isEmpty()) {
+			return new int[0];
+		}
+
+		EntityProperty keyProperty = getRowIdProperty();
+		for (A metaEntity : entity) {
+			if (keyProperty.getFieldBody().getGetter().apply(metaEntity) == null) {
+				throw new FlysqlException("batchUpdate need value of @RowId " + keyProperty.getName());
+			}
+		}
+
+		if (isSharded()) {
+			return executeShardBatch(entity, (e, rows) -> e.batchUpdate(rows, ignoreNull));
+		}
+
+		int batchSize = flysqlKey.getFlysqlProperties().getBatchSize();
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return mongoUpdate(entity, batchSize, keyProperty, ignoreNull);
+		}
+
+		// ignoreNull keeps the old value by coalesce, all rows share one statement
+		List<EntityProperty> properties = new ArrayList<>();
+		List<String> updateSets = new ArrayList<>();
+		for (EntityProperty metaProperty : entityMetadata.getProperties()) {
+			String columnName = metaProperty.getColumnName();
+			switch (metaProperty.getRole()) {
+				case ROW_ID:
+				case CREATED_BY:
+				case CREATED_DATE:
+				case IS_DELETE:
+					break;
+				case VERSION:
+					updateSets.add(columnName + " = coalesce(" + columnName + ", 0) + 1");
+					break;
+				case NORMAL:
+					properties.add(metaProperty);
+					updateSets.add(
+							columnName + " = " + (ignoreNull ? "coalesce(?, " + columnName + ")" : "?"));
+					break;
+				default:
+					properties.add(metaProperty);
+					updateSets.add(columnName + " = ?");
+			}
+		}
+		properties.add(keyProperty);
+
+		String sqlString =
+				"update "
+						+ entityMetadata.getTableName()
+						+ " set "
+						+ Strings.join(updateSets, ',')
+						+ " where "
+						+ keyProperty.getColumnName()
+						+ " = ?";
+
+		// guard by version of entity, null version not check
+		EntityProperty versionProperty = entityMetadata.getProperty(ColumnRole.VERSION);
+		int[] argTypes = initArgTypes(properties);
+		if (versionProperty != null) {
+			String versionColumn = versionProperty.getColumnName();
+			sqlString +=
+					" and coalesce(" + versionColumn + ", 0) = coalesce(?, " + versionColumn + ", 0)";
+			argTypes = Arrays.copyOf(argTypes, argTypes.length + 1);
+			argTypes[argTypes.length - 1] =
+					StatementCreatorUtils.javaTypeToSqlParameterType(
+							versionProperty.getFieldBody().getField().getType());
+		}
+
+		Function<A, Object[]> parameters =
+				metaEntity -> {
+					Object[] sqlParameters = generateSqlParameters(metaEntity, properties);
+					if (versionProperty == null) {
+						return sqlParameters;
+					}
+					Object[] guardParameters = Arrays.copyOf(sqlParameters, sqlParameters.length + 1);
+					guardParameters[sqlParameters.length] =
+							versionProperty.getFieldBody().getGetter().apply(metaEntity);
+					return guardParameters;
+				};
+
+		try {
+			if (versionProperty == null) {
+				return sumBatchResult(executeBatch(sqlString, entity, batchSize, argTypes, parameters));
+			}
+
+			// check each batch when it is done, stop before the next batch runs
+			int[][] batchResult = new int[(entity.size() + batchSize - 1) / batchSize][];
+			for (int i = 0; i < batchResult.length; i++) {
+				List<A> metaBatch =
+						entity.subList(i * batchSize, Math.min(entity.size(), (i + 1) * batchSize));
+				int[][] metaResult = executeBatch(sqlString, metaBatch, batchSize, argTypes, parameters);
+				checkVersion(metaBatch, batchSize, metaResult, keyProperty, versionProperty);
+				batchResult[i] = metaResult[0];
+			}
+			return sumBatchResult(batchResult);
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		} finally {
+			invalidateResultCache();
+		}
+	}
+
+	/**
+	 * fail when versioned row not updated, else add version of entity by 1
+	 *
+	 * @param entity entity
+	 * @param batchSize batchSize
+	 * @param batchResult affected rows of each statement
+	 * @param keyProperty row id property
+	 * @param versionProperty version property
+	 * @since 1.11.0
+	 */
+	public void checkVersion(
+			List<A> entity,
+			int batchSize,
+			int[][] batchResult,
+			EntityProperty keyProperty,
+			EntityProperty versionProperty) {
+
+		List<Object> staleRowIds = new ArrayList<>();
+		for (int i = 0; i < entity.size(); i++) {
+			A metaEntity = entity.get(i);
+			Object version = versionProperty.getFieldBody().getGetter().apply(metaEntity);
+			if (version == null) {
+				continue;
+			}
+			if (batchResult[i / batchSize][i % batchSize] == 0) {
+				staleRowIds.add(keyProperty.getFieldBody().getGetter().apply(metaEntity));
+			} else if (versionProperty.getFieldBody().getSetter() != null) {
+				versionProperty
+						.getFieldBody()
+						.getSetter()
+						.accept(
+								metaEntity,
+								version instanceof Long
+										? (Object) ((Long) version + 1)
+										: (Object) (((Number) version).intValue() + 1));
+			}
+		}
+
+		if (!staleRowIds.isEmpty()) {
+			throw new FlysqlOptimisticLockException(
+					entityMetadata.getTableName() + " rows not found or version changed: " + staleRowIds);
+		}
+	}
+
+	/**
+	 * get @RowId property
+	 *
+	 * @return row id property
+	 * @since 1.11.0
+	 */
+	public EntityProperty getRowIdProperty() {
+
+		EntityProperty keyProperty = entityMetadata.getProperty(ColumnRole.ROW_ID);
+		if (keyProperty == null) {
+			throw new FlysqlException("no @RowId in " + flysqlKey.getTargetClass().getSimpleName());
+		}
+		return keyProperty;
+	}
+
+	/**
+	 * mongo update by row id, unordered bulk for each batch
+	 *
+	 * @param entity entity
+	 * @param batchSize batchSize
+	 * @param keyProperty row id property
+	 * @param ignoreNull not set null value
+	 * @return modified rows of each batch
+	 * @since 1.11.0
+	 */
+	public int[] mongoUpdate(
+			List<A> entity, int batchSize, EntityProperty keyProperty, boolean ignoreNull) {
+
+		EntityProperty versionProperty = entityMetadata.getProperty(ColumnRole.VERSION);
+		int[] result = new int[(entity.size() + batchSize - 1) / batchSize];
+		for (int i = 0; i < result.length; i++) {
+			BulkOperations bulkOperations = initBulkOperations();
+
+			List<A> metaBatch =
+					entity.subList(i * batchSize, Math.min(entity.size(), (i + 1) * batchSize));
+			int guardRows = 0;
+			for (A metaEntity : metaBatch) {
+				Update update = new Update();
+				for (EntityProperty metaProperty : entityMetadata.getProperties()) {
+					switch (metaProperty.getRole()) {
+						case ROW_ID:
+						case CREATED_BY:
+						case CREATED_DATE:
+						case IS_DELETE:
+							break;
+						case VERSION:
+							update.inc(metaProperty.getName(), 1);
+							break;
+						case NORMAL:
+							Object value = metaProperty.getFieldBody().getGetter().apply(metaEntity);
+							if (value != null || !ignoreNull) {
+								update.set(metaProperty.getName(), value);
+							}
+							break;
+						default:
+							update.set(metaProperty.getName(), generateColumnValue(metaEntity, metaProperty));
+					}
+				}
+				Criteria criteria =
+						Criteria.where(keyProperty.getName())
+								.is(keyProperty.getFieldBody().getGetter().apply(metaEntity));
+				Object version =
+						versionProperty == null
+								? null
+								: versionProperty.getFieldBody().getGetter().apply(metaEntity);
+				if (version != null) {
+					criteria.and(versionProperty.getName()).is(version);
+					guardRows++;
+				}
+				bulkOperations.updateOne(new Query(criteria), update);
+			}
+
+			BulkWriteResult bulkWriteResult = bulkOperations.execute();
+			if (guardRows > 0 && bulkWriteResult.getMatchedCount() < metaBatch.size()) {
+				throw new FlysqlOptimisticLockException(
+						entityMetadata.getTableName() + " rows not found or version changed");
+			}
+			result[i] = bulkWriteResult.getModifiedCount();
+		}
+		return result;
+	}
+
+	/**
+	 * fill row id and audit properties of entity before mongo insert, the same values as jdbc insert
+	 *
+	 * @param entity entity
+	 * @since 1.11.0
+	 */
+	public void initSaveValues(A entity) {
+
+		for (EntityProperty metaProperty : entityMetadata.getProperties()) {
+			if (metaProperty.getRole() == ColumnRole.NORMAL
+					|| metaProperty.getFieldBody().getSetter() == null) {
+				continue;
+			}
+			Object value = generateColumnValue(entity, metaProperty);
+			if (metaProperty.getFieldBody().getField().getType().isInstance(value)) {
+				metaProperty.getFieldBody().getSetter().accept(entity, value);
+			}
+		}
+	}
+
+	/**
+	 * mongo bulk remove by conditions, in() longer than batchSize is split into one remove for each
+	 * chunk
+	 *
+	 * @param batchSize values of in() in one remove
+	 * @return removed documents
+	 * @since 1.11.0
+	 */
+	public int mongoRemove(int batchSize) {
+
+		BulkOperations bulkOperations = initBulkOperations();
+
+		int chunkIndex = -1;
+		for (int i = 0; i < sqlConditions.size(); i++) {
+			SqlCondition sqlConditionMeta = sqlConditions.get(i);
+			if (sqlConditionMeta.getOperateType() == IN
+					&& sqlConditionMeta.getValue() instanceof List
+					&& ((List<?>) sqlConditionMeta.getValue()).size() > batchSize) {
+				chunkIndex = i;
+				break;
+			}
+		}
+
+		if (chunkIndex < 0) {
+			bulkOperations.remove(new Query(parseSqlConditions(sqlConditions)));
+		} else {
+			SqlCondition chunkCondition = sqlConditions.get(chunkIndex);
+			List<?> inValues = (List<?>) chunkCondition.getValue();
+			for (int i = 0; i < inValues.size(); i += batchSize) {
+				List<SqlCondition> chunkConditions = new ArrayList<>(sqlConditions);
+				chunkConditions.set(
+						chunkIndex,
+						new SqlCondition(
+								IN,
+								chunkCondition.getColumnName(),
+								inValues.subList(i, Math.min(inValues.size(), i + batchSize))));
+				bulkOperations.remove(new Query(parseSqlConditions(chunkConditions)));
+			}
+		}
+
+		try {
+			return bulkOperations.execute().getDeletedCount();
+		} finally {
+			invalidateResultCache();
+		}
+	}
+
+	/**
+	 * mongo bulk of the table, unordered unless mongo-bulk-ordered
+	 *
+	 * @return BulkOperations
+	 * @since 1.11.0
+	 */
+	public BulkOperations initBulkOperations() {
+
+		return flysqlKey
+				.getMongoTemplate()
+				.bulkOps(
+						Boolean.TRUE.equals(flysqlKey.getFlysqlProperties().getMongoBulkOrdered())
+								? BulkOperations.BulkMode.ORDERED
+								: BulkOperations.BulkMode.UNORDERED,
+						flysqlKey.getTargetClass(),
+						Objects.requireNonNull(entityMetadata.getTableName()));
+	}
+
+	/**
+	 * mongo update many by conditions, set by update() and audit properties
+	 *
+	 * @param update update
+	 * @return matched documents
+	 * @since 1.11.0
+	 */
+	public long mongoUpdateMulti(Update update) {
+
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == UPDATE) {
+				update.set(sqlConditionMeta.getColumnName(), sqlConditionMeta.getValue());
+			}
+		}
+		for (EntityProperty metaProperty : entityMetadata.getProperties()) {
+			switch (metaProperty.getRole()) {
+				case LAST_MODIFIED_BY:
+					update.set(metaProperty.getName(), OxygenHolder.getUserUuid());
+					break;
+				case LAST_MODIFIED_DATE:
+					update.set(metaProperty.getName(), LocalDateTime.now());
+					break;
+				case VERSION:
+					update.inc(metaProperty.getName(), 1);
+					break;
+				default:
+			}
+		}
+
+		try {
+			return flysqlKey
+					.getMongoTemplate()
+					.updateMulti(
+							new Query(parseSqlConditions(sqlConditions)),
+							update,
+							flysqlKey.getTargetClass(),
+							Objects.requireNonNull(entityMetadata.getTableName()))
+					.getMatchedCount();
+		} finally {
+			invalidateResultCache();
+		}
+	}
+
+	/**
+	 * mongo upsert by row id, unordered bulk for each batch
+	 *
+	 * @param entity entity
+	 * @param batchSize batchSize
+	 * @param keyProperty row id property
+	 * @return upserted and modified rows of each batch
+	 * @since 1.11.0
+	 */
+	public int[] mongoUpsert(List<A> entity, int batchSize, EntityProperty keyProperty) {
+
+		int[] result = new int[(entity.size() + batchSize - 1) / batchSize];
+		for (int i = 0; i < result.length; i++) {
+			BulkOperations bulkOperations = initBulkOperations();
+
+			for (A metaEntity :
+					entity.subList(i * batchSize, Math.min(entity.size(), (i + 1) * batchSize))) {
+				Update update = new Update();
+				for (EntityProperty metaProperty : entityMetadata.getProperties()) {
+					Object value = generateColumnValue(metaEntity, metaProperty);
+					switch (metaProperty.getRole()) {
+						case ROW_ID:
+							break;
+						case CREATED_BY:
+						case CREATED_DATE:
+						case IS_DELETE:
+							update.setOnInsert(metaProperty.getName(), value);
+							break;
+						case VERSION:
+							update.inc(metaProperty.getName(), 1);
+							break;
+						default:
+							update.set(metaProperty.getName(), value);
+					}
+				}
+				bulkOperations.upsert(
+						new Query(
+								Criteria.where(keyProperty.getName())
+										.is(generateColumnValue(metaEntity, keyProperty))),
+						update);
+			}
+
+			BulkWriteResult bulkWriteResult = bulkOperations.execute();
+			result[i] = bulkWriteResult.getUpserts().size() + bulkWriteResult.getMatchedCount();
+		}
+		return result;
+	}
+
+	/**
+	 * run one prepared sql for each entity in jdbc batches
+	 *
+	 * @param sqlString sqlString
+	 * @param entity entity
+	 * @param batchSize batchSize
+	 * @param properties parameter properties in order
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	public int[] executeBatchUpdate(
+			String sqlString, List<A> entity, int batchSize, List<EntityProperty> properties) {
+
+		return sumBatchResult(
+				executeBatch(
+						sqlString,
+						entity,
+						batchSize,
+						initArgTypes(properties),
+						metaEntity -> generateSqlParameters(metaEntity, properties)));
+	}
+
+	/**
+	 * run one prepared sql for each entity in jdbc batches
+	 *
+	 * @param sqlString sqlString
+	 * @param entity entity
+	 * @param batchSize batchSize
+	 * @param argTypes sql types of parameters
+	 * @param parameters parameters of entity
+	 * @return affected rows of each statement in each batch
+	 * @since 1.11.0
+	 */
+	public int[][] executeBatch(
+			String sqlString,
+			List<A> entity,
+			int batchSize,
+			int[] argTypes,
+			Function<A, Object[]> parameters) {
+
+		printSql(sqlString + " <== " + entity.size() + " rows, batch size " + batchSize);
+
+		return flysqlKey
+				.getJdbcTemplate()
+				.batchUpdate(
+						sqlString,
+						entity,
+						batchSize,
+						(ps, metaEntity) -> {
+							Object[] sqlParameters = parameters.apply(metaEntity);
+							for (int j = 0; j < sqlParameters.length; j++) {
+								StatementCreatorUtils.setParameterValue(ps, j + 1, argTypes[j], sqlParameters[j]);
+							}
+						});
+	}
+
+	/**
+	 * sum affected rows of each batch
+	 *
+	 * @param batchResult affected rows of each statement in each batch
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	public static int[] sumBatchResult(int[][] batchResult) {
+
+		int[] result = new int[batchResult.length];
+		for (int i = 0; i < batchResult.length; i++) {
+			for (int metaCount : batchResult[i]) {
+				// driver may not report the count, one row for each statement
+				result[i] += metaCount == Statement.SUCCESS_NO_INFO ? 1 : metaCount;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void save(A entity) {
+
+		if (isSharded()) {
+			initShardExecute(getEntityShard(entity)).save(entity);
+			return;
+		}
+
+		String sqlString = initSaveSql(entity);
+
+		printSql(sqlString);
+
+		try {
+			if (flysqlKey.getJdbcTemplate() == null) {
+				flysqlKey
+						.getMongoTemplate()
+						.save(
+								entity,
+								Objects.requireNonNull(entityMetadata.getTableName()));
+			} else {
+				try {
+					flysqlKey.getJdbcTemplate().execute(sqlString);
+				} finally {
+					invalidateResultCache();
+				}
+			}
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		}
+	}
+
+	@Override
+	public void doDelete() {
+
+		if (isSharded()) {
+			writeShards(
+					getTargetShards(),
+					e -> {
+						initShardExecute(e).doDelete();
+						return e;
+					});
+			return;
+		}
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			mongoRemove(flysqlKey.getFlysqlProperties().getBatchSize());
+			return;
+		}
+
+		List<Object> sqlParameters = new ArrayList<>();
+		String sqlString =
+				parseSqlConditions(
+						initDeleteSql(), sqlParameters, sqlConditions, sqlOrderByConditions, "DELETE");
+
+		printSql(sqlString, sqlParameters);
+
+		try {
+			executeUpdate(sqlString, sqlParameters);
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		}
+	}
+
+	@Override
+	public void doIsDelete() {
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			EntityProperty deleteProperty = entityMetadata.getProperty(ColumnRole.IS_DELETE);
+			String deleteName =
+					deleteProperty == null ? FlysqlConstants.IS_DELETE_COL : deleteProperty.getName();
+			mongoUpdateMulti(new Update().set(deleteName, 1));
+			return;
+		}
+
+		sqlConditions.add(
+				bindCondition(
+						UPDATE, FlysqlConstants.LAST_MODIFIED_BY, "?", OxygenHolder.getUserUuid()));
+		sqlConditions.add(
+				bindCondition(
+						UPDATE,
+						FlysqlConstants.LAST_MODIFIED_DATE,
+						"?",
+						preparedStatement
+								? LocalDateTime.now()
+								: DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").format(LocalDateTime.now())));
 		sqlConditions.add(new SqlCondition(UPDATE, FlysqlConstants.IS_DELETE_COL, "1"));
 		executeUpdate();
 	}
@@ -257,17 +1517,400 @@ public void doIsDelete() {
 	@Override
 	public Integer count() {
 
+		if (isSharded()) {
+			int total = 0;
+			for (Integer metaCount : queryShards(FlysqlExecute::count)) {
+				total += metaCount;
+			}
+			return total;
+		}
+
+		if (flysqlKey.getJdbcTemplate() == null) {
+			return (int)
+					flysqlKey
+							.getMongoTemplate()
+							.count(
+									new Query(parseSqlConditions(sqlConditions)),
+									flysqlKey.getTargetClass(),
+									Objects.requireNonNull(entityMetadata.getTableName()));
+		}
+
+		List<Object> sqlParameters = new ArrayList<>();
 		String sqlString =
-				parseSqlConditions(initCountSql(), sqlConditions, sqlOrderByConditions, "COUNT");
+				parseSqlConditions(
+						initCountSql(), sqlParameters, sqlConditions, Collections.emptyList(), "COUNT");
 
-		printSql(sqlString);
+		printSql(sqlString, sqlParameters);
+
+		try {
+			return executeQuery(sqlString, sqlParameters, new SingleColumnRowMapper<>(Integer.class))
+					.get(0);
+		} catch (BadSqlGrammarException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException(e.getCause().getMessage());
+		}
+	}
+
+	// ---------------------------------------- shard ----------------------------------------
+
+	/**
+	 * table is @FlysqlShard
+	 *
+	 * @return true sharded
+	 * @since 1.11.0
+	 */
+	public boolean isSharded() {
+
+		return flysqlKey.getShardJdbcTemplates() != null;
+	}
+
+	/**
+	 * shards of shard key values in eq() and in(), all shards when not filtered by key or or() used
+	 *
+	 * @return shard indexes in order
+	 * @since 1.11.0
+	 */
+	public List<Integer> getTargetShards() {
+
+		boolean scatter = shardKeyValues == null;
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == OR || sqlConditionMeta.getOperateType() == SQL) {
+				scatter = true;
+				break;
+			}
+		}
+
+		Set<Integer> targetShards = new TreeSet<>();
+		if (scatter) {
+			for (int i = 0; i < flysqlKey.getShardJdbcTemplates().size(); i++) {
+				targetShards.add(i);
+			}
+		} else {
+			// null key matches no row
+			for (Object keyValue : shardKeyValues) {
+				if (keyValue != null) {
+					targetShards.add(FlysqlShardRouter.getShard(entityMetadata.getFlysqlShard(), keyValue));
+				}
+			}
+		}
+		return new ArrayList<>(targetShards);
+	}
+
+	/**
+	 * get shard of entity by its shard key, generate null row id before routing
+	 *
+	 * @param entity entity
+	 * @return shard index
+	 * @since 1.11.0
+	 */
+	public int getEntityShard(A entity) {
+
+		EntityProperty keyProperty = entityMetadata.getProperty(entityMetadata.getFlysqlShard().key());
+		Object keyValue =
+				keyProperty.getRole() == ColumnRole.ROW_ID
+						? initRowId(entity, keyProperty)
+						: keyProperty.getFieldBody().getGetter().apply(entity);
+
+		return FlysqlShardRouter.getShard(entityMetadata.getFlysqlShard(), keyValue);
+	}
+
+	/**
+	 * generate null row id and set it back to entity
+	 *
+	 * @param entity entity
+	 * @param keyProperty property of @RowId
+	 * @return row id, null when it can not be set back
+	 * @since 1.11.0
+	 */
+	public Object initRowId(A entity, EntityProperty keyProperty) {
+
+		Object rowId = keyProperty.getFieldBody().getGetter().apply(entity);
+
+		if (rowId == null && keyProperty.getFieldBody().getSetter() != null) {
+			Object generateId = generateColumnValue(entity, keyProperty);
+			if (keyProperty.getFieldBody().getField().getType().isInstance(generateId)) {
+				keyProperty.getFieldBody().getSetter().accept(entity, generateId);
+				rowId = generateId;
+			}
+		}
+		return rowId;
+	}
+
+	/**
+	 * executor of one shard, with conditions of this
+	 *
+	 * @param shard shard index
+	 * @return FlysqlExecute
+	 * @since 1.11.0
+	 */
+	public FlysqlExecute<A> initShardExecute(int shard) {
+
+		FlysqlKey<A> shardKey =
+				new FlysqlKey<>(
+						flysqlKey.getDataBaseType(),
+						flysqlKey.getSqlType(),
+						flysqlKey.getShardJdbcTemplates().get(shard),
+						flysqlKey.getTargetClass(),
+						flysqlKey.getViewSqlName(),
+						flysqlKey.getFlysqlProperties());
+		if (flysqlKey.getReadShardJdbcTemplates() != null) {
+			shardKey.setReadJdbcTemplate(flysqlKey.getReadShardJdbcTemplates().get(shard));
+		}
+		shardKey.setSqlCache(flysqlKey.getSqlCache());
+		shardKey.setPageExecutor(flysqlKey.getPageExecutor());
+		shardKey.setAsyncExecutor(flysqlKey.getAsyncExecutor());
+		shardKey.setMetrics(flysqlKey.getMetrics());
+		shardKey.setResultCache(flysqlKey.getResultCache());
+
+		FlysqlExecute<A> shardExecute = new FlysqlExecute<>(shardKey);
+		shardExecute.sqlConditions.addAll(sqlConditions);
+		shardExecute.sqlOrderByConditions.addAll(sqlOrderByConditions);
+		shardExecute.versionGuard = versionGuard;
+		return shardExecute;
+	}
+
+	/**
+	 * executor of the only target shard, for query can not merge
+	 *
+	 * @param operate operate name
+	 * @return FlysqlExecute
+	 * @since 1.11.0
+	 */
+	public FlysqlExecute<A> initSingleShardExecute(String operate) {
+
+		List<Integer> targetShards = getTargetShards();
+		if (targetShards.size() != 1) {
+			throw new FlysqlException(
+					operate + " of sharded table need shard key in eq() or in() of one shard");
+		}
+		return initShardExecute(targetShards.get(0));
+	}
+
+	/**
+	 * run query on each target shard, in parallel when more than one shard and not in transaction
+	 *
+	 * @param query query of one shard
+	 * @param <T> T
+	 * @return result of each shard
+	 * @since 1.11.0
+	 */
+	public <T> List<T> queryShards(Function<FlysqlExecute<A>, T> query) {
+
+		List<FlysqlExecute<A>> shardExecutes = new ArrayList<>();
+		getTargetShards().forEach(e -> shardExecutes.add(initShardExecute(e)));
+
+		List<T> result = new ArrayList<>(shardExecutes.size());
+		if (shardExecutes.size() < 2
+				|| flysqlKey.getShardExecutor() == null
+				|| TransactionSynchronizationManager.isActualTransactionActive()) {
+			shardExecutes.forEach(e -> result.add(query.apply(e)));
+			return result;
+		}
+
+		List<CompletableFuture<T>> futures = new ArrayList<>(shardExecutes.size());
+		shardExecutes.forEach(
+				e ->
+						futures.add(
+								CompletableFuture.supplyAsync(() -> query.apply(e), flysqlKey.getShardExecutor())));
+		for (CompletableFuture<T> metaFuture : futures) {
+			try {
+				result.add(metaFuture.join());
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * merge rows of shards, sort by orderBy and cut by limit
+	 *
+	 * @param shardRows rows of each shard
+	 * @param maxRows max rows, 0 is all
+	 * @return rows
+	 * @since 1.11.0
+	 */
+	public List<A> mergeShardRows(List<List<A>> shardRows, int maxRows) {
+
+		if (shardRows.size() == 1) {
+			return shardRows.get(0);
+		}
+
+		List<A> result = new ArrayList<>();
+		shardRows.forEach(result::addAll);
+		if (!sqlOrderByConditions.isEmpty()) {
+			result.sort(initOrderByComparator());
+		}
+
+		maxRows = getMergeLimit(maxRows);
+		if (maxRows > 0 && result.size() > maxRows) {
+			return new ArrayList<>(result.subList(0, maxRows));
+		}
+		return result;
+	}
+
+	/**
+	 * max rows after merge, the smaller of limit() and maxRows
+	 *
+	 * @param maxRows max rows, 0 is all
+	 * @return max rows, 0 is all
+	 * @since 1.11.0
+	 */
+	public int getMergeLimit(int maxRows) {
+
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == LIMIT) {
+				int limitValue = Integer.parseInt(String.valueOf(sqlConditionMeta.getValue()));
+				maxRows = maxRows > 0 ? Math.min(maxRows, limitValue) : limitValue;
+			}
+		}
+		return maxRows;
+	}
+
+	/**
+	 * compare rows by orderBy, null first
+	 *
+	 * @return Comparator
+	 * @since 1.11.0
+	 */
+	public Comparator<A> initOrderByComparator() {
+
+		Comparator<A> comparator = (a, b) -> 0;
+		for (String metaOrderBy : sqlOrderByConditions) {
+			int splitIndex = metaOrderBy.lastIndexOf(' ');
+			EntityProperty metaProperty =
+					entityMetadata.getColumnProperty(metaOrderBy.substring(0, splitIndex));
+			if (metaProperty == null) {
+				throw new FlysqlException(
+						metaOrderBy + " is not a column of " + entityMetadata.getTableName());
+			}
+
+			Function<Object, Object> getter = metaProperty.getFieldBody().getGetter();
+			boolean desc = OrderType.DESC.getOrderType().equals(metaOrderBy.substring(splitIndex + 1));
+			comparator =
+					comparator.thenComparing(
+							(a, b) -> {
+								int result = compareValue(getter.apply(a), getter.apply(b));
+								return desc ? -result : result;
+							});
+		}
+		return comparator;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static int compareValue(Object value1, Object value2) {
+
+		if (value1 == null || value2 == null) {
+			return value1 == null ? (value2 == null ? 0 : -1) : 1;
+		}
+		return ((Comparable<Object>) value1).compareTo(value2);
+	}
+
+	/**
+	 * query page of each shard and cut after merge, deep page reads page * size rows of each shard
+	 * and is limited by oxygen.flysql.shard-page-max-rows
+	 *
+	 * @param page page
+	 * @param size size
+	 * @return FlysqlPage
+	 * @since 1.11.0
+	 */
+	public FlysqlPage<A> queryShardPage(Integer page, Integer size) {
+
+		int rows = page * size;
+		Integer maxRows = flysqlKey.getFlysqlProperties().getShardPageMaxRows();
+		if (maxRows != null && rows > maxRows && getTargetShards().size() > 1) {
+			throw new FlysqlException(
+					"queryPage of sharded table reads "
+							+ rows
+							+ " rows of each shard, more than shard-page-max-rows "
+							+ maxRows
+							+ ", use queryKeyset");
+		}
+		List<A> mergeRows = mergeShardRows(queryShards(e -> e.queryFirstRows(rows)), rows);
+
+		FlysqlPage<A> pageResult = new FlysqlPage<>();
+		int fromIndex = Math.min(mergeRows.size(), rows - size);
+		pageResult.setPage(new ArrayList<>(mergeRows.subList(fromIndex, mergeRows.size())));
+		if (page == 1
+				&& mergeRows.size() < size
+				&& Boolean.TRUE.equals(flysqlKey.getFlysqlProperties().getPageSkipCount())) {
+			pageResult.setTotal(mergeRows.size());
+		} else {
+			// count renders no order by
+			int total = 0;
+			for (Integer metaCount : queryShards(FlysqlExecute::count)) {
+				total += metaCount;
+			}
+			pageResult.setTotal(total);
+		}
+		return pageResult;
+	}
+
+	/**
+	 * split entity by shard and run batch on each shard
+	 *
+	 * @param entity entity
+	 * @param action batch of one shard
+	 * @return affected rows of each batch, in shard order
+	 * @since 1.11.0
+	 */
+	public int[] executeShardBatch(
+			List<A> entity, BiFunction<FlysqlExecute<A>, List<A>, int[]> action) {
+
+		Map<Integer, List<A>> shardRowsMap = new TreeMap<>();
+		for (A metaEntity : entity) {
+			shardRowsMap
+					.computeIfAbsent(getEntityShard(metaEntity), e -> new ArrayList<>())
+					.add(metaEntity);
+		}
+
+		List<int[]> shardResults =
+				writeShards(
+						new ArrayList<>(shardRowsMap.keySet()),
+						e -> action.apply(initShardExecute(e), shardRowsMap.get(e)));
+		return shardResults.stream().flatMapToInt(Arrays::stream).toArray();
+	}
 
-		try {
-			return flysqlKey.getJdbcTemplate().queryForObject(sqlString, Integer.class);
-		} catch (BadSqlGrammarException e) {
-			log.error(e.getMessage());
-			throw new FlysqlException(e.getCause().getMessage());
+	/**
+	 * run write on each shard in order, shards do not share a transaction, FlysqlShardException
+	 * tells which shards kept their writes when a later shard fails
+	 *
+	 * @param shards shard indexes
+	 * @param write write of one shard
+	 * @param <T> T
+	 * @return result of each shard
+	 * @since 1.11.0
+	 */
+	public <T> List<T> writeShards(List<Integer> shards, Function<Integer, T> write) {
+
+		List<T> result = new ArrayList<>(shards.size());
+		List<Integer> succeededShards = new ArrayList<>();
+		for (Integer metaShard : shards) {
+			try {
+				result.add(write.apply(metaShard));
+			} catch (RuntimeException e) {
+				if (succeededShards.isEmpty()) {
+					throw e;
+				}
+				throw new FlysqlShardException(
+						entityMetadata.getTableName()
+								+ " write failed on shard "
+								+ metaShard
+								+ ", shards "
+								+ succeededShards
+								+ " are written: "
+								+ e.getMessage(),
+						succeededShards,
+						metaShard,
+						e);
+			}
+			succeededShards.add(metaShard);
 		}
+		return result;
 	}
 
 	// ---------------------------------------- init sql ----------------------------------------
@@ -280,7 +1923,7 @@ public Integer count() {
 	 */
 	public String initCountSql() {
 
-		return "select count(1) from " + FlysqlUtils.getTableName(flysqlKey.getTargetClass());
+		return "select count(1) from " + entityMetadata.getTableName();
 	}
 
 	/**
@@ -291,7 +1934,7 @@ public String initCountSql() {
 	 */
 	public String initDeleteSql() {
 
-		return "delete from " + FlysqlUtils.getTableName(flysqlKey.getTargetClass());
+		return "delete from " + entityMetadata.getTableName();
 	}
 
 	/**
@@ -302,19 +1945,35 @@ public String initDeleteSql() {
 	 */
 	public String initUpdateSql() {
 
+		return initUpdateSql(new ArrayList<>());
+	}
+
+	/**
+	 * init update sql
+	 *
+	 * @param sqlParameters collect set parameters
+	 * @return sqlString
+	 * @since 1.11.0
+	 */
+	public String initUpdateSql(List<Object> sqlParameters) {
+
 		StringBuilder sqlStringBuilder =
 				new StringBuilder(
-						"update " + FlysqlUtils.getTableName(flysqlKey.getTargetClass()) + " set ");
+						"update " + entityMetadata.getTableName() + " set ");
 
 		List<String> updateSetList = new ArrayList<>();
 		for (SqlCondition sqlConditionMeta : sqlConditions) {
 
+			if (sqlConditionMeta.getOperateType().equals(SQL)) {
+				throw new FlysqlException("sql() not support update");
+			}
 			if (sqlConditionMeta.getOperateType().equals(UPDATE)) {
 				Object value = sqlConditionMeta.getValue();
 				if (value == null) {
 					updateSetList.add(sqlConditionMeta.getColumnName() + " = null");
 				} else {
 					updateSetList.add(sqlConditionMeta.getColumnName() + " = " + value);
+					sqlParameters.addAll(sqlConditionMeta.getParameters());
 				}
 			}
 		}
@@ -331,38 +1990,38 @@ public String initSelectSql() {
 
 		if (flysqlKey.getSqlType().equals(SqlType.VIEW)) {
 
-			// duplicate view
-			if (flysqlKey.getTargetClass().isAnnotationPresent(FlysqlViews.class)) {
-
-				FlysqlView[] flysqlViews =
-						flysqlKey.getTargetClass().getAnnotation(FlysqlViews.class).value();
-				for (FlysqlView metaFlysqlView : flysqlViews) {
-					if (flysqlKey.getViewSqlName().equals(metaFlysqlView.name())) {
-						return " select "
-								+ FlysqlConstants.SELECT_REPLACE_CONTENT
-								+ " from ( "
-								+ metaFlysqlView.value()
-								+ " ) flysql ";
-					}
+			List<FlysqlView> flysqlViews = entityMetadata.getFlysqlViews();
+			String viewSqlName =
+					flysqlKey.getViewSqlName() == null
+							? FlysqlConstants.PRIMARY_VIEW_NAME
+							: flysqlKey.getViewSqlName();
+
+			FlysqlView flysqlView = null;
+			for (FlysqlView metaFlysqlView : flysqlViews) {
+				if (viewSqlName.equals(metaFlysqlView.name())) {
+					flysqlView = metaFlysqlView;
+					break;
 				}
 			}
 
 			// singel view
-			if (flysqlKey.getTargetClass().isAnnotationPresent(FlysqlView.class)) {
+			if (flysqlView == null && flysqlViews.size() == 1) {
+				flysqlView = flysqlViews.get(0);
+			}
 
-				FlysqlView flysqlView = flysqlKey.getTargetClass().getAnnotation(FlysqlView.class);
-				return " select "
-						+ FlysqlConstants.SELECT_REPLACE_CONTENT
-						+ " from ( "
-						+ flysqlView.value()
-						+ " ) flysql ";
+			if (flysqlView == null) {
+				throw new FlysqlException("view is not exist");
 			}
 
-			throw new FlysqlException("view is not exist");
+			return " select "
+					+ FlysqlConstants.SELECT_REPLACE_CONTENT
+					+ " from ( "
+					+ flysqlView.value()
+					+ " ) flysql ";
 		} else {
 
 			// normal select sql
-			String tableName = FlysqlUtils.getTableName(flysqlKey.getTargetClass());
+			String tableName = entityMetadata.getTableName();
 			return tableName == null
 					? ""
 					: "select " + FlysqlConstants.SELECT_REPLACE_CONTENT + " from " + tableName;
@@ -378,13 +2037,13 @@ public String initSelectSql() {
 	 */
 	public String initSaveSql(A entity) {
 
-		List<FieldBody> fieldBodies = ReflectUtils.queryFields(flysqlKey.getTargetClass());
+		List<EntityProperty> properties = entityMetadata.getProperties();
 
 		return "insert into "
-				+ FlysqlUtils.getTableName(flysqlKey.getTargetClass())
-				+ generateSqlCols(fieldBodies)
+				+ entityMetadata.getTableName()
+				+ generateSqlCols(properties)
 				+ " values "
-				+ generateSqlValues(entity, fieldBodies);
+				+ generateSqlValues(entity, properties);
 	}
 
 	/**
@@ -396,62 +2055,127 @@ public String initSaveSql(A entity) {
 	 */
 	public String initBatchSaveSql(List<A> entity) {
 
-		List<FieldBody> fieldBodies = ReflectUtils.queryFields(flysqlKey.getTargetClass());
+		List<EntityProperty> properties = entityMetadata.getProperties();
 
 		List<String> valueSqlList = new ArrayList<>();
-		entity.forEach(e -> valueSqlList.add(generateSqlValues(e, fieldBodies)));
+		entity.forEach(e -> valueSqlList.add(generateSqlValues(e, properties)));
 
 		return "insert into "
-				+ FlysqlUtils.getTableName(flysqlKey.getTargetClass())
-				+ generateSqlCols(fieldBodies)
+				+ entityMetadata.getTableName()
+				+ generateSqlCols(properties)
 				+ " values "
 				+ Strings.join(valueSqlList, ',');
 	}
 
-	public String generateSqlCols(List<FieldBody> fieldBodies) {
+	/**
+	 * init prepared insert sql, with placeholders for each row
+	 *
+	 * @param properties properties
+	 * @param rows rows
+	 * @return sqlString
+	 * @since 1.11.0
+	 */
+	public String initPreparedSaveSql(List<EntityProperty> properties, int rows) {
+
+		String rowPlaceholder =
+				"(" + Strings.join(Collections.nCopies(properties.size(), "?"), ',') + ")";
 
-		List<String> columnList = new ArrayList<>();
-		for (FieldBody metaFieldBody : fieldBodies) {
-			Field metaField = metaFieldBody.getField();
-			columnList.add(columnsMap.get(metaField.getName()).getName());
+		return "insert into "
+				+ entityMetadata.getTableName()
+				+ generateSqlCols(properties)
+				+ " values "
+				+ Strings.join(Collections.nCopies(rows, rowPlaceholder), ',');
+	}
+
+	/**
+	 * jdbc type of each column, by property class
+	 *
+	 * @param properties properties
+	 * @return sql types
+	 * @since 1.11.0
+	 */
+	public int[] initArgTypes(List<EntityProperty> properties) {
+
+		int[] argTypes = new int[properties.size()];
+		for (int i = 0; i < properties.size(); i++) {
+			argTypes[i] =
+					StatementCreatorUtils.javaTypeToSqlParameterType(
+							properties.get(i).getFieldBody().getField().getType());
 		}
-		return "(" + Strings.join(columnList, ',') + ")";
+		return argTypes;
 	}
 
-	public String generateSqlValues(A entity, List<FieldBody> fieldBodies) {
+	/**
+	 * bind values of one row, in properties order
+	 *
+	 * @param entity entity
+	 * @param properties properties
+	 * @return values
+	 * @since 1.11.0
+	 */
+	public Object[] generateSqlParameters(A entity, List<EntityProperty> properties) {
+
+		Object[] values = new Object[properties.size()];
+		for (int i = 0; i < properties.size(); i++) {
+			values[i] = generateColumnValue(entity, properties.get(i));
+		}
+		return values;
+	}
 
-		List<String> valueList = new ArrayList<>();
+	/**
+	 * column value to insert, audit columns filled by flysql
+	 *
+	 * @param entity entity
+	 * @param metaProperty metaProperty
+	 * @return value
+	 * @since 1.11.0
+	 */
+	public Object generateColumnValue(A entity, EntityProperty metaProperty) {
 
-		for (FieldBody metaFieldBody : fieldBodies) {
-			Object invoke;
-			Field metaField = metaFieldBody.getField();
-			if (metaField.isAnnotationPresent(CreatedBy.class)
-					|| metaField.isAnnotationPresent(LastModifiedBy.class)) {
+		Object invoke;
+		switch (metaProperty.getRole()) {
+			case CREATED_BY:
+			case LAST_MODIFIED_BY:
 				invoke = getExecutorId();
-			} else if (metaField.isAnnotationPresent(CreatedDate.class)
-					|| metaField.isAnnotationPresent(LastModifiedDate.class)) {
+				break;
+			case CREATED_DATE:
+			case LAST_MODIFIED_DATE:
 				invoke = LocalDateTime.now();
-			} else if (metaField.isAnnotationPresent(Version.class)) {
+				break;
+			case VERSION:
 				invoke = 1;
-			} else if (metaField.isAnnotationPresent(IsDelete.class)) {
+				break;
+			case IS_DELETE:
 				invoke = 0;
-			} else {
-				try {
-					invoke = metaFieldBody.getReadMethod().invoke(entity);
-				} catch (IllegalAccessException | InvocationTargetException e) {
-					continue;
-				}
-			}
+				break;
+			default:
+				invoke = metaProperty.getFieldBody().getGetter().apply(entity);
+		}
 
-			if (metaField.isAnnotationPresent(RowId.class)) {
-				if (invoke == null) {
-					invoke = SnowflakeUtils.getNextUuid();
-				}
-			}
+		if (metaProperty.getRole() == ColumnRole.ROW_ID && invoke == null) {
+			invoke = SnowflakeUtils.getNextUuid();
+		}
+		return invoke;
+	}
+
+	public String generateSqlCols(List<EntityProperty> properties) {
+
+		List<String> columnList = new ArrayList<>();
+		for (EntityProperty metaProperty : properties) {
+			columnList.add(metaProperty.getColumnName());
+		}
+		return "(" + Strings.join(columnList, ',') + ")";
+	}
+
+	public String generateSqlValues(A entity, List<EntityProperty> properties) {
+
+		List<String> valueList = new ArrayList<>();
+		SqlValue sqlValue = SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType());
 
+		for (EntityProperty metaProperty : properties) {
+			Object invoke = generateColumnValue(entity, metaProperty);
 			if (invoke != null) {
-				SqlValue sqlValue = SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType());
-				switch (metaField.getType().getName()) {
+				switch (metaProperty.getClassName()) {
 					case ReflectConstants.BOOLEAN:
 					case ReflectConstants.BOOLEAN_LOWER:
 						valueList.add(sqlValue.getBooleanValue(invoke.toString()));
@@ -496,6 +2220,35 @@ public String getExecutorId() {
 		return String.valueOf(principal);
 	}
 
+	/**
+	 * mongo query of conditions, with select fields, orderBy, limit and cursor batch size
+	 *
+	 * @return Query
+	 * @since 1.11.0
+	 */
+	public Query initMongoQuery() {
+
+		Query query = new Query(parseSqlConditions(sqlConditions));
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == SqlOperateType.SELECT) {
+				query.fields().include(String.valueOf(sqlConditionMeta.getValue()).split(","));
+			} else if (sqlConditionMeta.getOperateType() == LIMIT) {
+				query.limit(Integer.parseInt(String.valueOf(sqlConditionMeta.getValue())));
+			}
+		}
+
+		for (String metaOrderBy : sqlOrderByConditions) {
+			int splitIndex = metaOrderBy.lastIndexOf(' ');
+			query.with(
+					Sort.by(
+							OrderType.DESC.getOrderType().equals(metaOrderBy.substring(splitIndex + 1))
+									? Sort.Direction.DESC
+									: Sort.Direction.ASC,
+							metaOrderBy.substring(0, splitIndex)));
+		}
+		return query.cursorBatchSize(flysqlKey.getFlysqlProperties().getFetchSize());
+	}
+
 	/**
 	 * parse mongodb sql conditions
 	 *
@@ -526,10 +2279,23 @@ public Criteria parseSqlConditions(List<SqlCondition> sqlConditions) {
 					criteria.and(sqlConditionMeta.getColumnName()).lte(sqlConditionMeta.getValue());
 					break;
 				case IN:
-					criteria.and(sqlConditionMeta.getColumnName()).in(sqlConditionMeta.getValue());
+					// values of in() are flattened into one list
+					if (sqlConditionMeta.getValue() instanceof Collection) {
+						criteria
+								.and(sqlConditionMeta.getColumnName())
+								.in((Collection<?>) sqlConditionMeta.getValue());
+					} else {
+						criteria.and(sqlConditionMeta.getColumnName()).in(sqlConditionMeta.getValue());
+					}
 					break;
 				case NOT_IN:
-					criteria.and(sqlConditionMeta.getColumnName()).ne(sqlConditionMeta.getValue());
+					if (sqlConditionMeta.getValue() instanceof Collection) {
+						criteria
+								.and(sqlConditionMeta.getColumnName())
+								.nin((Collection<?>) sqlConditionMeta.getValue());
+					} else {
+						criteria.and(sqlConditionMeta.getColumnName()).nin(sqlConditionMeta.getValue());
+					}
 					break;
 				case OR:
 					criteria.orOperator();
@@ -559,9 +2325,117 @@ public String parseSqlConditions(
 			List<String> sqlOrderByConditions,
 			String executeType) {
 
+		return parseSqlConditions(
+				sqlString, new ArrayList<>(), sqlConditions, sqlOrderByConditions, executeType);
+	}
+
+	/**
+	 * parse sql conditions and collect the prepared parameters in order
+	 *
+	 * @param sqlString sqlString
+	 * @param sqlParameters sqlParameters
+	 * @param sqlConditions sqlConditions
+	 * @param sqlOrderByConditions sqlOrderByConditions
+	 * @param executeType executeType
+	 * @return sqlString
+	 * @since 1.11.0
+	 */
+	public String parseSqlConditions(
+			String sqlString,
+			List<Object> sqlParameters,
+			List<SqlCondition> sqlConditions,
+			List<String> sqlOrderByConditions,
+			String executeType) {
+
+		parseSqlParameters(sqlParameters, sqlConditions);
+
+		// inline values make every sql different, only cache prepared shapes
+		if (!preparedStatement || flysqlKey.getSqlCache() == null) {
+			return renderSqlConditions(sqlString, sqlConditions, sqlOrderByConditions, executeType);
+		}
+
+		List<Object> shapeKey = new ArrayList<>(sqlConditions.size() * 3 + 6);
+		shapeKey.add(flysqlKey.getTargetClass());
+		shapeKey.add(flysqlKey.getDataBaseType());
+		shapeKey.add(executeType);
+		shapeKey.add(sqlString);
+		shapeKey.add(new ArrayList<>(sqlOrderByConditions));
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			shapeKey.add(sqlConditionMeta.getOperateType());
+			shapeKey.add(sqlConditionMeta.getColumnName());
+			shapeKey.add(sqlConditionMeta.getValue());
+		}
+
+		return flysqlKey
+				.getSqlCache()
+				.getSql(
+						shapeKey,
+						() ->
+								renderSqlConditions(
+										sqlString, sqlConditions, sqlOrderByConditions, executeType));
+	}
+
+	/**
+	 * collect prepared parameters in rendered order
+	 *
+	 * @param sqlParameters sqlParameters, set parameters of update before
+	 * @param sqlConditions sqlConditions
+	 * @since 1.11.0
+	 */
+	public void parseSqlParameters(List<Object> sqlParameters, List<SqlCondition> sqlConditions) {
+
+		// having is rendered after where
+		int whereStart = sqlParameters.size();
+		List<Object> havingParameters = new ArrayList<>();
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			switch (sqlConditionMeta.getOperateType()) {
+				case SQL:
+					// sql() replace the where before, not the update set
+					sqlParameters.subList(whereStart, sqlParameters.size()).clear();
+					havingParameters.clear();
+					break;
+				case UPDATE:
+					break;
+				case HAVING:
+					havingParameters.addAll(sqlConditionMeta.getParameters());
+					break;
+				default:
+					sqlParameters.addAll(sqlConditionMeta.getParameters());
+			}
+		}
+		sqlParameters.addAll(havingParameters);
+	}
+
+	/**
+	 * render sql conditions
+	 *
+	 * @param sqlString sqlString
+	 * @param sqlConditions sqlConditions
+	 * @param sqlOrderByConditions sqlOrderByConditions
+	 * @param executeType executeType
+	 * @return sqlString
+	 * @since 1.11.0
+	 */
+	private String renderSqlConditions(
+			String sqlString,
+			List<SqlCondition> sqlConditions,
+			List<String> sqlOrderByConditions,
+			String executeType) {
+
+		// count of groups
+		if ("COUNT".equals(executeType) && isGrouped(sqlConditions)) {
+			return " select count(1) from ("
+					+ renderSqlConditions(
+							initSelectSql(), sqlConditions, Collections.emptyList(), "SELECT")
+					+ ") alia ";
+		}
+
 		StringBuilder sqlStringBuilder = new StringBuilder(sqlString);
 
-		boolean selectFlag = true;
+		List<String> selectList = new ArrayList<>();
+		List<String> groupSelectList = new ArrayList<>();
+		List<String> groupByList = new ArrayList<>();
+		List<String> havingList = new ArrayList<>();
 		boolean limitFlag = false;
 		boolean whereFlag = false;
 		Integer limitValue = null;
@@ -572,15 +2446,16 @@ public String parseSqlConditions(
 
 			switch (sqlConditionMeta.getOperateType()) {
 				case SELECT:
-					sqlStringBuilder =
-							new StringBuilder(
-									sqlStringBuilder
-											.toString()
-											.replace(
-													FlysqlConstants.SELECT_REPLACE_CONTENT,
-													String.valueOf(sqlConditionMeta.getValue())));
-					selectFlag = false;
-					break;
+					// select(), sum() and others join in one list, next condition still starts the where
+					selectList.add(String.valueOf(sqlConditionMeta.getValue()));
+					continue;
+				case GROUP_BY:
+					groupByList.add(sqlConditionMeta.getColumnName());
+					groupSelectList.add(String.valueOf(sqlConditionMeta.getValue()));
+					continue;
+				case HAVING:
+					havingList.add(sqlConditionMeta.getColumnName() + sqlConditionMeta.getValue());
+					continue;
 				case SET_VALUE:
 					sqlStringBuilder =
 							new StringBuilder(
@@ -602,6 +2477,10 @@ public String parseSqlConditions(
 					}
 					break;
 				case ORDER_BY:
+					// order by in count is rejected by h2 and sql server
+					if (executeType.equals("COUNT")) {
+						break;
+					}
 					if (hasOperateType(sqlConditionTemp, SqlOperateType.ORDER_BY)) {
 						sqlStringBuilder.append(",");
 					} else {
@@ -654,6 +2533,13 @@ public String parseSqlConditions(
 			sqlConditionTemp = sqlConditionMeta;
 		}
 
+		if (!groupByList.isEmpty()) {
+			sqlStringBuilder.append(" group by ").append(Strings.join(groupByList, ','));
+		}
+		if (!havingList.isEmpty()) {
+			sqlStringBuilder.append(" having ").append(String.join(" and ", havingList));
+		}
+
 		// last order by
 		if (!sqlOrderByConditions.isEmpty()) {
 			sqlStringBuilder.append(" order by ").append(Strings.join(sqlOrderByConditions, ','));
@@ -661,19 +2547,62 @@ public String parseSqlConditions(
 
 		// last limit
 		if (limitFlag) {
-			sqlStringBuilder.append(" limit ").append(limitValue);
+			sqlStringBuilder =
+					new StringBuilder(
+							SqlValueFactory.getSqlValue(flysqlKey.getDataBaseType())
+									.getLimitSql(sqlStringBuilder.toString(), limitValue));
 		}
 
-		// 替换需要查询的字段
-		if (selectFlag) {
-			List<String> columnsList = new ArrayList<>();
+		// 替换需要查询的字段, group columns first
+		List<String> columnsList = new ArrayList<>(groupSelectList);
+		if (selectList.isEmpty() && groupSelectList.isEmpty()) {
 			columnsMap.forEach((k, v) -> columnsList.add(v.getName() + " " + k));
-			return sqlStringBuilder
-					.toString()
-					.replace(FlysqlConstants.SELECT_REPLACE_CONTENT, Strings.join(columnsList, ','));
 		}
+		for (String metaSelect : selectList) {
+			if (!columnsList.contains(metaSelect)) {
+				columnsList.add(metaSelect);
+			}
+		}
+		return sqlStringBuilder
+				.toString()
+				.replace(FlysqlConstants.SELECT_REPLACE_CONTENT, Strings.join(columnsList, ','));
+	}
+
+	/**
+	 * has groupBy() or having()
+	 *
+	 * @param sqlConditions sqlConditions
+	 * @return true grouped
+	 * @since 1.11.0
+	 */
+	public static boolean isGrouped(List<SqlCondition> sqlConditions) {
+
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == SqlOperateType.GROUP_BY
+					|| sqlConditionMeta.getOperateType() == SqlOperateType.HAVING) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * has order by in sql
+	 *
+	 * @return true has order by
+	 * @since 1.11.0
+	 */
+	public boolean hasOrderBy() {
 
-		return sqlStringBuilder.toString();
+		if (!sqlOrderByConditions.isEmpty()) {
+			return true;
+		}
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == SqlOperateType.ORDER_BY) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -692,6 +2621,199 @@ public static Boolean hasOperateType(SqlCondition sqlCondition, SqlOperateType s
 		return sqlCondition.getOperateType().equals(sqlOperateType);
 	}
 
+	/**
+	 * execute query, use prepared statement when has parameters
+	 *
+	 * @param sqlString sqlString
+	 * @param sqlParameters sqlParameters
+	 * @param rowMapper rowMapper
+	 * @param <T> T
+	 * @return list[data]
+	 * @since 1.11.0
+	 */
+	public <T> List<T> executeQuery(
+			String sqlString, List<Object> sqlParameters, RowMapper<T> rowMapper) {
+
+		return executeQuery(sqlString, sqlParameters, rowMapper, 0);
+	}
+
+	/**
+	 * execute query and stop reading after maxRows
+	 *
+	 * @param sqlString sqlString
+	 * @param sqlParameters sqlParameters
+	 * @param rowMapper rowMapper
+	 * @param maxRows max rows to read, 0 is all
+	 * @param <T> T
+	 * @return list[data]
+	 * @since 1.11.0
+	 */
+	public <T> List<T> executeQuery(
+			String sqlString, List<Object> sqlParameters, RowMapper<T> rowMapper, int maxRows) {
+
+		if (isResultCacheable()) {
+			List<Object> queryKey =
+					Arrays.asList(
+							flysqlKey.getJdbcTemplate(),
+							flysqlKey.getTargetClass(),
+							sqlString,
+							new ArrayList<>(sqlParameters),
+							maxRows);
+			return flysqlKey
+					.getResultCache()
+					.getResult(
+							entityMetadata.getTableName(),
+							queryKey,
+							entityMetadata.getFlysqlCache().ttl(),
+							() -> doExecuteQuery(sqlString, sqlParameters, rowMapper, maxRows));
+		}
+		return doExecuteQuery(sqlString, sqlParameters, rowMapper, maxRows);
+	}
+
+	/**
+	 * cache select of @FlysqlCache table, not for sql() which may read other tables, not in
+	 * transaction which may read uncommitted rows
+	 *
+	 * @return true cacheable
+	 * @since 1.11.0
+	 */
+	public boolean isResultCacheable() {
+
+		if (flysqlKey.getResultCache() == null
+				|| entityMetadata.getFlysqlCache() == null
+				|| entityMetadata.getTableName() == null
+				|| flysqlKey.getSqlType() != SqlType.SELECT
+				|| TransactionSynchronizationManager.isActualTransactionActive()) {
+			return false;
+		}
+		for (SqlCondition sqlConditionMeta : sqlConditions) {
+			if (sqlConditionMeta.getOperateType() == SQL) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private <T> List<T> doExecuteQuery(
+			String sqlString, List<Object> sqlParameters, RowMapper<T> rowMapper, int maxRows) {
+
+		ResultSetExtractor<List<T>> extractor =
+				maxRows > 0
+						? rs -> {
+							List<T> result = new ArrayList<>(maxRows);
+							while (result.size() < maxRows && rs.next()) {
+								result.add(rowMapper.mapRow(rs, result.size()));
+							}
+							return result;
+						}
+						: new RowMapperResultSetExtractor<>(rowMapper);
+
+		if (sqlParameters.isEmpty()) {
+			return getQueryJdbcTemplate().query(sqlString, extractor);
+		}
+		return getQueryJdbcTemplate().query(initStatementCreator(sqlString, sqlParameters), extractor);
+	}
+
+	/**
+	 * query reads replica out of transaction, transaction must see its own writes
+	 *
+	 * @return JdbcTemplate
+	 * @since 1.11.0
+	 */
+	public JdbcTemplate getQueryJdbcTemplate() {
+
+		if (flysqlKey.getReadJdbcTemplate() == null
+				|| TransactionSynchronizationManager.isActualTransactionActive()) {
+			return flysqlKey.getJdbcTemplate();
+		}
+		return flysqlKey.getReadJdbcTemplate();
+	}
+
+	/**
+	 * execute update, use prepared statement when has parameters
+	 *
+	 * @param sqlString sqlString
+	 * @param sqlParameters sqlParameters
+	 * @return affected rows
+	 * @since 1.11.0
+	 */
+	public int executeUpdate(String sqlString, List<Object> sqlParameters) {
+
+		try {
+			if (sqlParameters.isEmpty()) {
+				return flysqlKey.getJdbcTemplate().update(sqlString);
+			}
+			return flysqlKey.getJdbcTemplate().update(initStatementCreator(sqlString, sqlParameters));
+		} finally {
+			invalidateResultCache();
+		}
+	}
+
+	/**
+	 * invalidate cached select result of the table, after commit when in transaction
+	 *
+	 * @since 1.11.0
+	 */
+	public void invalidateResultCache() {
+
+		FlysqlResultCache resultCache = flysqlKey.getResultCache();
+		String tableName = entityMetadata.getTableName();
+		if (resultCache == null || tableName == null) {
+			return;
+		}
+
+		// before commit, other threads could cache the old rows again
+		if (TransactionSynchronizationManager.isSynchronizationActive()
+				&& TransactionSynchronizationManager.isActualTransactionActive()) {
+			TransactionSynchronizationManager.registerSynchronization(
+					new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							resultCache.invalidate(tableName);
+						}
+					});
+			return;
+		}
+		resultCache.invalidate(tableName);
+	}
+
+	/**
+	 * row mapper by target class, basic type map the first column
+	 *
+	 * @return RowMapper
+	 * @since 1.11.0
+	 */
+	public RowMapper<A> initRowMapper() {
+
+		// 基础类型返回
+		if (flysqlKey.getTargetClass().isInstance("") || flysqlKey.getTargetClass().isInstance(1)) {
+			return new SingleColumnRowMapper<>(flysqlKey.getTargetClass());
+		}
+		return FlysqlRowMapperRegistry.getRowMapper(flysqlKey.getTargetClass());
+	}
+
+	/**
+	 * init prepared statement creator, parameter jdbc type by value class
+	 *
+	 * @param sqlString sqlString
+	 * @param sqlParameters sqlParameters
+	 * @return PreparedStatementCreator
+	 * @since 1.11.0
+	 */
+	public static PreparedStatementCreator initStatementCreator(
+			String sqlString, List<Object> sqlParameters) {
+
+		PreparedStatementCreatorFactory creatorFactory = new PreparedStatementCreatorFactory(sqlString);
+		for (Object metaParameter : sqlParameters) {
+			creatorFactory.addParameter(
+					new SqlParameter(
+							metaParameter == null
+									? SqlTypeValue.TYPE_UNKNOWN
+									: StatementCreatorUtils.javaTypeToSqlParameterType(metaParameter.getClass())));
+		}
+		return creatorFactory.newPreparedStatementCreator(sqlParameters);
+	}
+
 	/**
 	 * print sql
 	 *
@@ -704,4 +2826,15 @@ public void printSql(String sql) {
 			log.debug("[oxygen-flysql-sql]:" + sql);
 		}
 	}
+
+	/**
+	 * print sql with prepared parameters
+	 *
+	 * @param sql sql
+	 * @param sqlParameters sqlParameters
+	 */
+	public void printSql(String sql, List<Object> sqlParameters) {
+
+		printSql(sqlParameters.isEmpty() ? sql : sql + " <== " + sqlParameters);
+	}
 }
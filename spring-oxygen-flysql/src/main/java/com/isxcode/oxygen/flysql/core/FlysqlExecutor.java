@@ -1,7 +1,14 @@
 package com.isxcode.oxygen.flysql.core;
 
+import com.isxcode.oxygen.flysql.entity.FlysqlKeysetPage;
 import com.isxcode.oxygen.flysql.entity.FlysqlPage;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.util.CloseableIterator;
 
 /**
  * sql executor
@@ -19,6 +26,64 @@
 	 */
 	List<A> query();
 
+	/**
+	 * select into dto, record or simple type, matched by select() names
+	 *
+	 * @param targetClass targetClass
+	 * @param <T> T
+	 * @return list[data]
+	 * @since 1.11.0
+	 */
+	<T> List<T> into(Class<T> targetClass);
+
+	/**
+	 * select into maps, key is case insensitive column label
+	 *
+	 * @return list[Map[label, value]]
+	 * @since 1.11.0
+	 */
+	List<Map<String, Object>> queryMaps();
+
+	/**
+	 * select into arrays in column order
+	 *
+	 * @return list[values]
+	 * @since 1.11.0
+	 */
+	List<Object[]> queryTuples();
+
+	/**
+	 * select on async executor
+	 *
+	 * @return future of list[data]
+	 * @since 1.11.0
+	 */
+	CompletableFuture<List<A>> queryAsync();
+
+	/**
+	 * select by stream, rows mapped one by one, must close the stream after use
+	 *
+	 * @return stream[data]
+	 * @since 1.11.0
+	 */
+	Stream<A> stream();
+
+	/**
+	 * select and consume rows one by one
+	 *
+	 * @param consumer consumer
+	 * @since 1.11.0
+	 */
+	void forEach(Consumer<A> consumer);
+
+	/**
+	 * select by cursor, must close the cursor after use
+	 *
+	 * @return cursor
+	 * @since 1.11.0
+	 */
+	CloseableIterator<A> cursor();
+
 	/**
 	 * page select
 	 *
@@ -29,6 +94,26 @@
 	 */
 	FlysqlPage<A> queryPage(Integer page, Integer size);
 
+	/**
+	 * page select on async executor
+	 *
+	 * @param page page
+	 * @param size size
+	 * @return future of page
+	 * @since 1.11.0
+	 */
+	CompletableFuture<FlysqlPage<A>> queryPageAsync(Integer page, Integer size);
+
+	/**
+	 * keyset page select, seek after the last row by orderBy columns
+	 *
+	 * @param size size
+	 * @param token nextToken of last page, null for first page
+	 * @return page and nextToken
+	 * @since 1.11.0
+	 */
+	FlysqlKeysetPage<A> queryKeyset(Integer size, String token);
+
 	/**
 	 * select one
 	 *
@@ -37,6 +122,30 @@
 	 */
 	A getOne();
 
+	/**
+	 * select one on async executor
+	 *
+	 * @return future of data
+	 * @since 1.11.0
+	 */
+	CompletableFuture<A> getOneAsync();
+
+	/**
+	 * select exactly one, fail when no row or more than one row
+	 *
+	 * @return data
+	 * @since 1.11.0
+	 */
+	A getExactlyOne();
+
+	/**
+	 * select the first row
+	 *
+	 * @return optional data
+	 * @since 1.11.0
+	 */
+	Optional<A> findFirst();
+
 	/**
 	 * update data
 	 *
@@ -53,12 +162,72 @@
 	void save(A entity);
 
 	/**
-	 * batch save data
+	 * batch save data, split by oxygen.flysql.batch-size
 	 *
 	 * @param entity model object
+	 * @return affected rows of each batch
 	 * @since 2019-12-26
 	 */
-	void batchSave(List<A> entity);
+	int[] batchSave(List<A> entity);
+
+	/**
+	 * batch save data
+	 *
+	 * @param entity model object
+	 * @param batchSize rows in one batch
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	int[] batchSave(List<A> entity, int batchSize);
+
+	/**
+	 * insert or update data by @RowId, update keeps created columns and adds version by 1
+	 *
+	 * @param entity model object
+	 * @since 1.11.0
+	 */
+	void upsert(A entity);
+
+	/**
+	 * batch insert or update data by @RowId, split by oxygen.flysql.batch-size
+	 *
+	 * @param entity model object
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	int[] batchUpsert(List<A> entity);
+
+	/**
+	 * batch insert or update data by @RowId
+	 *
+	 * @param entity model object
+	 * @param batchSize rows in one batch
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	int[] batchUpsert(List<A> entity, int batchSize);
+
+	/**
+	 * batch update data by @RowId, split by oxygen.flysql.batch-size
+	 *
+	 * <p>with @Version, each batch is checked when it is done and FlysqlOptimisticLockException
+	 * stops the next batches, run it in a transaction to roll back the batches before
+	 *
+	 * @param entity model object
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	int[] batchUpdate(List<A> entity);
+
+	/**
+	 * batch update data by @RowId, run it in a transaction when entity has @Version
+	 *
+	 * @param entity model object
+	 * @param ignoreNull true only update not null fields
+	 * @return affected rows of each batch
+	 * @since 1.11.0
+	 */
+	int[] batchUpdate(List<A> entity, boolean ignoreNull);
 
 	/**
 	 * delete data
@@ -81,4 +250,12 @@
 	 * @since 0.0.1
 	 */
 	Integer count();
+
+	/**
+	 * count data on async executor
+	 *
+	 * @return future of countNum
+	 * @since 1.11.0
+	 */
+	CompletableFuture<Integer> countAsync();
 }
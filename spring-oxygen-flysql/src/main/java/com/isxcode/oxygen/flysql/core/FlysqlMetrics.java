@@ -0,0 +1,73 @@
+package com.isxcode.oxygen.flysql.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * flysql query counts, shared by all datasource
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlMetrics {
+
+	/** queryPage() calls */
+	private final AtomicLong pageQueryCount = new AtomicLong();
+
+	/** count queries run by queryPage() */
+	private final AtomicLong countQueryCount = new AtomicLong();
+
+	/** count queries skipped, page 1 shorter than size */
+	private final AtomicLong skipCountQueryCount = new AtomicLong();
+
+	/** queryPage() run page and count concurrently */
+	private final AtomicLong concurrentPageCount = new AtomicLong();
+
+	/** serial time minus concurrent time */
+	private final AtomicLong concurrentSavedMillis = new AtomicLong();
+
+	public void addPageQuery() {
+
+		pageQueryCount.incrementAndGet();
+	}
+
+	public void addCountQuery() {
+
+		countQueryCount.incrementAndGet();
+	}
+
+	public void addSkipCountQuery() {
+
+		skipCountQueryCount.incrementAndGet();
+	}
+
+	public void addConcurrentPage(long savedMillis) {
+
+		concurrentPageCount.incrementAndGet();
+		concurrentSavedMillis.addAndGet(Math.max(0, savedMillis));
+	}
+
+	public long getPageQueryCount() {
+
+		return pageQueryCount.get();
+	}
+
+	public long getCountQueryCount() {
+
+		return countQueryCount.get();
+	}
+
+	public long getSkipCountQueryCount() {
+
+		return skipCountQueryCount.get();
+	}
+
+	public long getConcurrentPageCount() {
+
+		return concurrentPageCount.get();
+	}
+
+	public long getConcurrentSavedMillis() {
+
+		return concurrentSavedMillis.get();
+	}
+}
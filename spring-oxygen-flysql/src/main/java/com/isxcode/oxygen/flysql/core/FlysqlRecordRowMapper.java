@@ -0,0 +1,104 @@
+package com.isxcode.oxygen.flysql.core;
+
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * map row to java record by canonical constructor, component matched by column label
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlRecordRowMapper<T> implements RowMapper<T> {
+
+	private final Constructor<T> constructor;
+
+	private final String[] componentNames;
+
+	private final FlysqlRowMapperRegistry.ColumnReader[] componentReaders;
+
+	/** column index for each component, 0 when not selected, resolved by first row */
+	private int[] columnIndexes;
+
+	public FlysqlRecordRowMapper(Class<T> targetClass) {
+
+		// record api is not in jdk 8, read components by reflection
+		try {
+			Object[] components =
+					(Object[]) Class.class.getMethod("getRecordComponents").invoke(targetClass);
+			componentNames = new String[components.length];
+			componentReaders = new FlysqlRowMapperRegistry.ColumnReader[components.length];
+			Class<?>[] componentTypes = new Class<?>[components.length];
+			for (int i = 0; i < components.length; i++) {
+				Method getName = components[i].getClass().getMethod("getName");
+				Method getType = components[i].getClass().getMethod("getType");
+				componentNames[i] = (String) getName.invoke(components[i]);
+				componentTypes[i] = (Class<?>) getType.invoke(components[i]);
+				componentReaders[i] = FlysqlRowMapperRegistry.getColumnReader(componentTypes[i]);
+			}
+			constructor = targetClass.getDeclaredConstructor(componentTypes);
+		} catch (ReflectiveOperationException e) {
+			throw new FlysqlException(targetClass.getName() + " is not a record");
+		}
+	}
+
+	/**
+	 * is java record
+	 *
+	 * @param targetClass targetClass
+	 * @return true is record
+	 * @since 1.11.0
+	 */
+	public static boolean isRecord(Class<?> targetClass) {
+
+		return targetClass.getSuperclass() != null
+				&& "java.lang.Record".equals(targetClass.getSuperclass().getName());
+	}
+
+	@Override
+	public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+
+		if (columnIndexes == null) {
+			columnIndexes = parseColumnIndexes(rs.getMetaData());
+		}
+
+		// null of primitive component is default value by BeanUtils
+		Object[] args = new Object[componentNames.length];
+		for (int i = 0; i < componentNames.length; i++) {
+			if (columnIndexes[i] > 0) {
+				args[i] = componentReaders[i].read(rs, columnIndexes[i]);
+			}
+		}
+		return BeanUtils.instantiateClass(constructor, args);
+	}
+
+	private int[] parseColumnIndexes(ResultSetMetaData metaData) throws SQLException {
+
+		Map<String, Integer> labelMap = new HashMap<>();
+		for (int index = 1; index <= metaData.getColumnCount(); index++) {
+			labelMap.put(normalizeName(JdbcUtils.lookupColumnName(metaData, index)), index);
+		}
+
+		int[] indexes = new int[componentNames.length];
+		for (int i = 0; i < componentNames.length; i++) {
+			indexes[i] = labelMap.getOrDefault(normalizeName(componentNames[i]), 0);
+		}
+		return indexes;
+	}
+
+	/** birth_date, BIRTH_DATE and birthDate are the same */
+	private static String normalizeName(String name) {
+
+		return name.replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+	}
+}
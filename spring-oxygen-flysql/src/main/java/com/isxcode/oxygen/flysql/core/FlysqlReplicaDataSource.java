@@ -0,0 +1,149 @@
+package com.isxcode.oxygen.flysql.core;
+
+import com.isxcode.oxygen.flysql.enums.ReplicaBalanceType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * route read connections to replicas, skip replica which failed to connect, primary when all
+ * replicas are down
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Slf4j
+public class FlysqlReplicaDataSource extends AbstractDataSource {
+
+	private final DataSource primary;
+
+	@Getter private final List<Replica> replicas = new ArrayList<>();
+
+	private final ReplicaBalanceType balanceType;
+
+	/** skip failed replica for millis */
+	private final long downMillis;
+
+	private final AtomicInteger roundRobinIndex = new AtomicInteger();
+
+	/** replica datasource and its state */
+	@Getter
+	public static class Replica {
+
+		private final String name;
+
+		private final DataSource dataSource;
+
+		/** connections in use */
+		private final AtomicInteger outstanding = new AtomicInteger();
+
+		/** not connect before this time */
+		private volatile long downUntil;
+
+		public Replica(String name, DataSource dataSource) {
+
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+
+		public boolean isHealthy() {
+
+			return downUntil <= System.currentTimeMillis();
+		}
+	}
+
+	public FlysqlReplicaDataSource(
+			DataSource primary,
+			List<Replica> replicas,
+			ReplicaBalanceType balanceType,
+			long downMillis) {
+
+		this.primary = primary;
+		this.replicas.addAll(replicas);
+		this.balanceType = balanceType;
+		this.downMillis = downMillis;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = chooseReplica();
+			if (replica == null) {
+				break;
+			}
+			try {
+				return trackConnection(replica, replica.getDataSource().getConnection());
+			} catch (SQLException e) {
+				log.warn("replica {} is down, {}", replica.getName(), e.getMessage());
+				replica.downUntil = System.currentTimeMillis() + downMillis;
+			}
+		}
+		return primary.getConnection();
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+
+		return primary.getConnection(username, password);
+	}
+
+	/**
+	 * choose healthy replica by balance type
+	 *
+	 * @return replica, null when all down
+	 * @since 1.11.0
+	 */
+	public Replica chooseReplica() {
+
+		if (balanceType == ReplicaBalanceType.LEAST_OUTSTANDING) {
+			Replica result = null;
+			for (Replica replica : replicas) {
+				if (replica.isHealthy()
+						&& (result == null || replica.outstanding.get() < result.outstanding.get())) {
+					result = replica;
+				}
+			}
+			return result;
+		}
+
+		int start = Math.floorMod(roundRobinIndex.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get((start + i) % replicas.size());
+			if (replica.isHealthy()) {
+				return replica;
+			}
+		}
+		return null;
+	}
+
+	/** count connection in use until closed */
+	private Connection trackConnection(Replica replica, Connection connection) {
+
+		replica.outstanding.incrementAndGet();
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection)
+				Proxy.newProxyInstance(
+						Connection.class.getClassLoader(),
+						new Class<?>[] {Connection.class},
+						(proxy, method, args) -> {
+							if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+								replica.outstanding.decrementAndGet();
+							}
+							try {
+								return method.invoke(connection, args);
+							} catch (InvocationTargetException e) {
+								throw e.getTargetException();
+							}
+						});
+	}
+}
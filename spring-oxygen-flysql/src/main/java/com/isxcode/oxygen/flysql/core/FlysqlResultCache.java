@@ -0,0 +1,175 @@
+package com.isxcode.oxygen.flysql.core;
+
+import com.isxcode.oxygen.flysql.entity.EntityProperty;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import lombok.AllArgsConstructor;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * cache select result by rendered sql and bind values, invalidated by table
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlResultCache {
+
+	/** lru cache, key is query and table version */
+	private final Map<List<Object>, CacheValue> resultCacheMap;
+
+	/** write version of each table, old versions are never hit again */
+	private final Map<String, AtomicLong> tableVersionMap = new ConcurrentHashMap<>();
+
+	/** max cache size */
+	private final int maxSize;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong invalidateCount = new AtomicLong();
+
+	@AllArgsConstructor
+	private static class CacheValue {
+
+		private final List<?> result;
+
+		private final long expireAt;
+	}
+
+	public FlysqlResultCache(int maxSize) {
+
+		this.maxSize = maxSize;
+		this.resultCacheMap =
+				Collections.synchronizedMap(
+						new LinkedHashMap<List<Object>, CacheValue>(16, 0.75f, true) {
+							@Override
+							protected boolean removeEldestEntry(Map.Entry<List<Object>, CacheValue> eldest) {
+								return size() > FlysqlResultCache.this.maxSize;
+							}
+						});
+	}
+
+	/**
+	 * get cached result, query and cache when missed or expired
+	 *
+	 * @param tableName table of the query
+	 * @param queryKey rendered sql and bind values
+	 * @param ttlSeconds time to live
+	 * @param query query
+	 * @param <T> T
+	 * @return result, a new list of copied rows for each call
+	 * @since 1.11.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> List<T> getResult(
+			String tableName, List<Object> queryKey, long ttlSeconds, Supplier<List<T>> query) {
+
+		if (maxSize <= 0) {
+			return query.get();
+		}
+
+		// version read before query, a concurrent write makes this entry unreachable
+		List<Object> cacheKey = new ArrayList<>(queryKey);
+		cacheKey.add(getTableVersion(tableName).get());
+
+		CacheValue cacheValue = resultCacheMap.get(cacheKey);
+		if (cacheValue != null && cacheValue.expireAt > System.currentTimeMillis()) {
+			hitCount.incrementAndGet();
+			return copyRows((List<T>) cacheValue.result);
+		}
+
+		missCount.incrementAndGet();
+		List<T> result = query.get();
+		resultCacheMap.put(
+				cacheKey, new CacheValue(copyRows(result), System.currentTimeMillis() + ttlSeconds * 1000));
+		return result;
+	}
+
+	/**
+	 * copy rows, callers change their entities without changing the cache
+	 *
+	 * @param rows rows
+	 * @param <T> T
+	 * @return copied rows
+	 * @since 1.11.0
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> copyRows(List<T> rows) {
+
+		List<T> copyRows = new ArrayList<>(rows.size());
+		for (T metaRow : rows) {
+			if (metaRow == null || BeanUtils.isSimpleValueType(metaRow.getClass())) {
+				copyRows.add(metaRow);
+				continue;
+			}
+
+			// property values are shared, entity fields are mostly immutable types
+			T copyRow =
+					BeanUtils.instantiateClass(
+							FlysqlRowMapperRegistry.getConstructor((Class<T>) metaRow.getClass()));
+			for (EntityProperty metaProperty :
+					EntityMetadataRegistry.getMetadata(metaRow.getClass()).getProperties()) {
+				if (metaProperty.getFieldBody().getGetter() != null
+						&& metaProperty.getFieldBody().getSetter() != null) {
+					metaProperty
+							.getFieldBody()
+							.getSetter()
+							.accept(copyRow, metaProperty.getFieldBody().getGetter().apply(metaRow));
+				}
+			}
+			copyRows.add(copyRow);
+		}
+		return copyRows;
+	}
+
+	/**
+	 * invalidate all cached result of the table
+	 *
+	 * @param tableName tableName
+	 * @since 1.11.0
+	 */
+	public void invalidate(String tableName) {
+
+		invalidateCount.incrementAndGet();
+		getTableVersion(tableName).incrementAndGet();
+	}
+
+	private AtomicLong getTableVersion(String tableName) {
+
+		return tableVersionMap.computeIfAbsent(
+				tableName.toLowerCase(Locale.ROOT), name -> new AtomicLong());
+	}
+
+	public long getHitCount() {
+
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+
+		return missCount.get();
+	}
+
+	public long getInvalidateCount() {
+
+		return invalidateCount.get();
+	}
+
+	public int getSize() {
+
+		return resultCacheMap.size();
+	}
+
+	public void clear() {
+
+		resultCacheMap.clear();
+	}
+}
@@ -0,0 +1,45 @@
+package com.isxcode.oxygen.flysql.core;
+
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * map row to entity by generated setter, instead of BeanPropertyRowMapper
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlRowMapper<A> implements RowMapper<A> {
+
+	private final Class<A> targetClass;
+
+	private final Constructor<A> constructor;
+
+	/** setter for each column index, resolved by first row */
+	private FlysqlRowMapperRegistry.ColumnSetter[] columnSetters;
+
+	public FlysqlRowMapper(Class<A> targetClass) {
+
+		this.targetClass = targetClass;
+		this.constructor = FlysqlRowMapperRegistry.getConstructor(targetClass);
+	}
+
+	@Override
+	public A mapRow(ResultSet rs, int rowNum) throws SQLException {
+
+		if (columnSetters == null) {
+			columnSetters = FlysqlRowMapperRegistry.getColumnSetters(targetClass, rs.getMetaData());
+		}
+
+		A target = BeanUtils.instantiateClass(constructor);
+		for (int index = 1; index < columnSetters.length; index++) {
+			if (columnSetters[index] != null) {
+				columnSetters[index].set(rs, index, target);
+			}
+		}
+		return target;
+	}
+}
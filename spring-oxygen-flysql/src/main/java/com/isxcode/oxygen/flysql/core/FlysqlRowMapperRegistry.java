@@ -0,0 +1,258 @@
+package com.isxcode.oxygen.flysql.core;
+
+import com.isxcode.oxygen.core.reflect.ReflectConstants;
+import com.isxcode.oxygen.flysql.entity.EntityProperty;
+import java.lang.reflect.Constructor;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.util.ClassUtils;
+
+/**
+ * row mapper registry, resolve column to setter once for each class and column layout
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlRowMapperRegistry {
+
+	/** Map[class, Map[lowercase column label, property]] */
+	private static final Map<Class<?>, Map<String, EntityProperty>> PROPERTY_MAP =
+			new ConcurrentHashMap<>();
+
+	/** Map[[class, column labels...], column setters] */
+	private static final Map<List<Object>, ColumnSetter[]> COLUMN_SETTER_MAP =
+			new ConcurrentHashMap<>();
+
+	private static final Map<Class<?>, Constructor<?>> CONSTRUCTOR_MAP = new ConcurrentHashMap<>();
+
+	/** read column and write to target */
+	@FunctionalInterface
+	public interface ColumnSetter {
+
+		void set(ResultSet rs, int index, Object target) throws SQLException;
+	}
+
+	/** read column by type */
+	@FunctionalInterface
+	public interface ColumnReader {
+
+		Object read(ResultSet rs, int index) throws SQLException;
+	}
+
+	/**
+	 * get row mapper
+	 *
+	 * @param targetClass targetClass
+	 * @param <A> A
+	 * @return FlysqlRowMapper
+	 * @since 1.11.0
+	 */
+	public static <A> FlysqlRowMapper<A> getRowMapper(Class<A> targetClass) {
+
+		return new FlysqlRowMapper<>(targetClass);
+	}
+
+	/**
+	 * get row mapper of projection, simple type maps the first column, record by constructor
+	 *
+	 * @param targetClass targetClass
+	 * @param <T> T
+	 * @return RowMapper
+	 * @since 1.11.0
+	 */
+	public static <T> RowMapper<T> getProjectionRowMapper(Class<T> targetClass) {
+
+		if (BeanUtils.isSimpleValueType(targetClass)) {
+			return new SingleColumnRowMapper<>(targetClass);
+		}
+		if (FlysqlRecordRowMapper.isRecord(targetClass)) {
+			return new FlysqlRecordRowMapper<>(targetClass);
+		}
+		return getRowMapper(targetClass);
+	}
+
+	/**
+	 * get constructor without args
+	 *
+	 * @param targetClass targetClass
+	 * @param <A> A
+	 * @return Constructor
+	 * @since 1.11.0
+	 */
+	@SuppressWarnings("unchecked")
+	public static <A> Constructor<A> getConstructor(Class<A> targetClass) {
+
+		return (Constructor<A>)
+				CONSTRUCTOR_MAP.computeIfAbsent(targetClass, BeanUtils::getResolvableConstructor);
+	}
+
+	/**
+	 * get column setters of result set, index 0 is not used, null when column not mapped
+	 *
+	 * @param targetClass targetClass
+	 * @param metaData result set metadata
+	 * @return column setters
+	 * @throws SQLException SQLException
+	 * @since 1.11.0
+	 */
+	public static ColumnSetter[] getColumnSetters(Class<?> targetClass, ResultSetMetaData metaData)
+			throws SQLException {
+
+		int columnCount = metaData.getColumnCount();
+		List<Object> layoutKey = new ArrayList<>(columnCount + 1);
+		layoutKey.add(targetClass);
+		for (int index = 1; index <= columnCount; index++) {
+			layoutKey.add(JdbcUtils.lookupColumnName(metaData, index));
+		}
+
+		return COLUMN_SETTER_MAP.computeIfAbsent(
+				layoutKey, FlysqlRowMapperRegistry::parseColumnSetters);
+	}
+
+	/**
+	 * remove all mappers, for class reload
+	 *
+	 * @since 1.11.0
+	 */
+	public static void clear() {
+
+		PROPERTY_MAP.clear();
+		COLUMN_SETTER_MAP.clear();
+		CONSTRUCTOR_MAP.clear();
+	}
+
+	private static ColumnSetter[] parseColumnSetters(List<Object> layoutKey) {
+
+		Map<String, EntityProperty> propertyMap =
+				PROPERTY_MAP.computeIfAbsent(
+						(Class<?>) layoutKey.get(0), FlysqlRowMapperRegistry::parsePropertyMap);
+
+		ColumnSetter[] columnSetters = new ColumnSetter[layoutKey.size()];
+		for (int index = 1; index < layoutKey.size(); index++) {
+			String columnLabel = String.valueOf(layoutKey.get(index));
+			EntityProperty metaProperty =
+					propertyMap.get(columnLabel.replace(" ", "").toLowerCase(Locale.ROOT));
+			if (metaProperty == null) {
+				continue;
+			}
+
+			Class<?> propertyType = metaProperty.getFieldBody().getField().getType();
+			ColumnReader reader = getColumnReader(propertyType);
+			BiConsumer<Object, Object> setter = metaProperty.getFieldBody().getSetter();
+			boolean primitive = propertyType.isPrimitive();
+			columnSetters[index] =
+					(rs, columnIndex, target) -> {
+						Object value = reader.read(rs, columnIndex);
+						if (value != null || !primitive) {
+							setter.accept(target, value);
+						}
+					};
+		}
+		return columnSetters;
+	}
+
+	private static Map<String, EntityProperty> parsePropertyMap(Class<?> targetClass) {
+
+		Map<String, EntityProperty> propertyMap = new HashMap<>();
+		for (EntityProperty metaProperty :
+				EntityMetadataRegistry.getMetadata(targetClass).getProperties()) {
+			if (metaProperty.getFieldBody().getSetter() == null) {
+				continue;
+			}
+			propertyMap.put(metaProperty.getName().toLowerCase(Locale.ROOT), metaProperty);
+			propertyMap.put(metaProperty.getColumnName().toLowerCase(Locale.ROOT), metaProperty);
+			propertyMap.put(underscoreName(metaProperty.getName()), metaProperty);
+		}
+		return propertyMap;
+	}
+
+	/**
+	 * type-specialized column reader, instead of getObject and convert
+	 *
+	 * @param propertyType propertyType
+	 * @return ColumnReader
+	 * @since 1.11.0
+	 */
+	public static ColumnReader getColumnReader(Class<?> propertyType) {
+
+		switch (propertyType.getName()) {
+			case ReflectConstants.STRING:
+				return ResultSet::getString;
+			case ReflectConstants.INTEGER:
+			case "int":
+				return (rs, index) -> {
+					int value = rs.getInt(index);
+					return rs.wasNull() ? null : value;
+				};
+			case ReflectConstants.LONG:
+			case "long":
+				return (rs, index) -> {
+					long value = rs.getLong(index);
+					return rs.wasNull() ? null : value;
+				};
+			case ReflectConstants.DOUBLE:
+			case "double":
+				return (rs, index) -> {
+					double value = rs.getDouble(index);
+					return rs.wasNull() ? null : value;
+				};
+			case ReflectConstants.BOOLEAN:
+			case ReflectConstants.BOOLEAN_LOWER:
+				return (rs, index) -> {
+					boolean value = rs.getBoolean(index);
+					return rs.wasNull() ? null : value;
+				};
+			case ReflectConstants.BIG_DECIMAL:
+				return ResultSet::getBigDecimal;
+			case ReflectConstants.DATE:
+				return ResultSet::getTimestamp;
+			case ReflectConstants.LOCAL_DATE_TIME:
+				return (rs, index) -> {
+					Timestamp value = rs.getTimestamp(index);
+					return value == null ? null : value.toLocalDateTime();
+				};
+			case ReflectConstants.LOCAL_DATE:
+				return (rs, index) -> {
+					Date value = rs.getDate(index);
+					return value == null ? null : value.toLocalDate();
+				};
+			default:
+				// enum and other types jdbc can not read, converted like BeanPropertyRowMapper
+				return (rs, index) -> {
+					Object value = JdbcUtils.getResultSetValue(rs, index, propertyType);
+					if (value == null || ClassUtils.isAssignableValue(propertyType, value)) {
+						return value;
+					}
+					return DefaultConversionService.getSharedInstance().convert(value, propertyType);
+				};
+		}
+	}
+
+	private static String underscoreName(String name) {
+
+		StringBuilder result = new StringBuilder();
+		for (char metaChar : name.toCharArray()) {
+			if (Character.isUpperCase(metaChar)) {
+				result.append('_').append(Character.toLowerCase(metaChar));
+			} else {
+				result.append(metaChar);
+			}
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,20 @@
+package com.isxcode.oxygen.flysql.core;
+
+/**
+ * custom shard function of @FlysqlShard
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@FunctionalInterface
+public interface FlysqlShardFunction {
+
+	/**
+	 * choose shard by key, same key must return same shard
+	 *
+	 * @param keyValue shard key value, not null
+	 * @param shards shard count
+	 * @return shard index, from 0 to shards - 1
+	 */
+	int shard(Object keyValue, int shards);
+}
@@ -0,0 +1,91 @@
+package com.isxcode.oxygen.flysql.core;
+
+import com.isxcode.oxygen.flysql.annotation.FlysqlShard;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * choose shard of key value by @FlysqlShard
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlShardRouter {
+
+	private static final Map<Class<? extends FlysqlShardFunction>, FlysqlShardFunction>
+			SHARD_FUNCTION_MAP = new ConcurrentHashMap<>();
+
+	/**
+	 * get shard index of key value
+	 *
+	 * @param flysqlShard flysqlShard
+	 * @param keyValue keyValue
+	 * @return shard index
+	 * @since 1.11.0
+	 */
+	public static int getShard(FlysqlShard flysqlShard, Object keyValue) {
+
+		if (keyValue == null) {
+			throw new FlysqlException("shard key " + flysqlShard.key() + " is null");
+		}
+
+		int shards = flysqlShard.datasources().length;
+		int shard;
+		switch (flysqlShard.strategy()) {
+			case MOD:
+				shard = (int) Math.floorMod(parseLong(flysqlShard, keyValue), (long) shards);
+				break;
+			case RANGE:
+				long value = parseLong(flysqlShard, keyValue);
+				long[] ranges = flysqlShard.ranges();
+				shard = 0;
+				while (shard < ranges.length && value >= ranges[shard]) {
+					shard++;
+				}
+				shard = Math.min(shard, shards - 1);
+				break;
+			case CUSTOM:
+				if (flysqlShard.function() == FlysqlShardFunction.class) {
+					throw new FlysqlException("CUSTOM shard strategy need function");
+				}
+				shard =
+						SHARD_FUNCTION_MAP
+								.computeIfAbsent(flysqlShard.function(), BeanUtils::instantiateClass)
+								.shard(keyValue, shards);
+				break;
+			default:
+				// string form, key bind as string or number go to same shard
+				shard = Math.floorMod(String.valueOf(keyValue).hashCode(), shards);
+		}
+
+		if (shard < 0 || shard >= shards) {
+			throw new FlysqlException("shard " + shard + " of " + keyValue + " is out of range");
+		}
+		return shard;
+	}
+
+	/**
+	 * remove all shard functions, for class reload
+	 *
+	 * @since 1.11.0
+	 */
+	public static void clear() {
+
+		SHARD_FUNCTION_MAP.clear();
+	}
+
+	private static long parseLong(FlysqlShard flysqlShard, Object keyValue) {
+
+		if (keyValue instanceof Number) {
+			return ((Number) keyValue).longValue();
+		}
+		try {
+			return Long.parseLong(String.valueOf(keyValue));
+		} catch (NumberFormatException e) {
+			throw new FlysqlException(
+					"shard key " + flysqlShard.key() + " is not a number: " + keyValue);
+		}
+	}
+}
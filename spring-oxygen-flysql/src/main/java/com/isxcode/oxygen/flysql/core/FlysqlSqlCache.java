@@ -0,0 +1,87 @@
+package com.isxcode.oxygen.flysql.core;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * cache rendered sql by query shape, same shape only bind values
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlSqlCache {
+
+	/** lru cache, key is query shape */
+	private final Map<List<Object>, String> sqlCacheMap;
+
+	/** max cache size */
+	private final int maxSize;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	public FlysqlSqlCache(int maxSize) {
+
+		this.maxSize = maxSize;
+		this.sqlCacheMap =
+				Collections.synchronizedMap(
+						new LinkedHashMap<List<Object>, String>(16, 0.75f, true) {
+							@Override
+							protected boolean removeEldestEntry(Map.Entry<List<Object>, String> eldest) {
+								return size() > FlysqlSqlCache.this.maxSize;
+							}
+						});
+	}
+
+	/**
+	 * get rendered sql, render and cache when missed
+	 *
+	 * @param shapeKey query shape
+	 * @param renderSql render sql
+	 * @return sqlString
+	 * @since 1.11.0
+	 */
+	public String getSql(List<Object> shapeKey, Supplier<String> renderSql) {
+
+		if (maxSize <= 0) {
+			missCount.incrementAndGet();
+			return renderSql.get();
+		}
+
+		String sqlString = sqlCacheMap.get(shapeKey);
+		if (sqlString != null) {
+			hitCount.incrementAndGet();
+			return sqlString;
+		}
+
+		missCount.incrementAndGet();
+		sqlString = renderSql.get();
+		sqlCacheMap.put(shapeKey, sqlString);
+		return sqlString;
+	}
+
+	public long getHitCount() {
+
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+
+		return missCount.get();
+	}
+
+	public int getSize() {
+
+		return sqlCacheMap.size();
+	}
+
+	public void clear() {
+
+		sqlCacheMap.clear();
+	}
+}
@@ -0,0 +1,93 @@
+package com.isxcode.oxygen.flysql.entity;
+
+import com.isxcode.oxygen.flysql.annotation.FlysqlCache;
+import com.isxcode.oxygen.flysql.annotation.FlysqlShard;
+import com.isxcode.oxygen.flysql.annotation.FlysqlView;
+import com.isxcode.oxygen.flysql.enums.ColumnRole;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * entity metadata, immutable and shared by all flysql executors
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Getter
+@AllArgsConstructor
+public class EntityMetadata {
+
+	/** entity class */
+	private final Class<?> targetClass;
+
+	/** @TableName value, null when not a table */
+	private final String tableName;
+
+	/** Map[propertyName, column] */
+	private final Map<String, ColumnProperties> columnsMap;
+
+	/** properties which has field and read method */
+	private final List<EntityProperty> properties;
+
+	/** @FlysqlView and @FlysqlViews */
+	private final List<FlysqlView> flysqlViews;
+
+	/** @FlysqlCache, null when not cache */
+	private final FlysqlCache flysqlCache;
+
+	/** @FlysqlShard, null when not sharded */
+	private final FlysqlShard flysqlShard;
+
+	/**
+	 * get first property by role
+	 *
+	 * @param role role
+	 * @return property, null when not exist
+	 * @since 1.11.0
+	 */
+	public EntityProperty getProperty(ColumnRole role) {
+
+		for (EntityProperty metaProperty : properties) {
+			if (metaProperty.getRole() == role) {
+				return metaProperty;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * get property by db column name
+	 *
+	 * @param columnName column name
+	 * @return property, null when not exist
+	 * @since 1.11.0
+	 */
+	public EntityProperty getColumnProperty(String columnName) {
+
+		for (EntityProperty metaProperty : properties) {
+			if (metaProperty.getColumnName().equalsIgnoreCase(columnName)) {
+				return metaProperty;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * get property by name
+	 *
+	 * @param name property name
+	 * @return property, null when not exist
+	 * @since 1.11.0
+	 */
+	public EntityProperty getProperty(String name) {
+
+		for (EntityProperty metaProperty : properties) {
+			if (metaProperty.getName().equals(name)) {
+				return metaProperty;
+			}
+		}
+		return null;
+	}
+}
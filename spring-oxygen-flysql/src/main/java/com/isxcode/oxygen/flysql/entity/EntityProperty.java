@@ -0,0 +1,32 @@
+package com.isxcode.oxygen.flysql.entity;
+
+import com.isxcode.oxygen.core.reflect.FieldBody;
+import com.isxcode.oxygen.flysql.enums.ColumnRole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * entity property, resolved once by class
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Getter
+@AllArgsConstructor
+public class EntityProperty {
+
+	/** property name */
+	private final String name;
+
+	/** db column name */
+	private final String columnName;
+
+	/** property class name */
+	private final String className;
+
+	/** column role */
+	private final ColumnRole role;
+
+	/** read and write method */
+	private final FieldBody fieldBody;
+}
@@ -1,8 +1,13 @@
 package com.isxcode.oxygen.flysql.entity;
 
+import com.isxcode.oxygen.flysql.core.FlysqlMetrics;
+import com.isxcode.oxygen.flysql.core.FlysqlResultCache;
+import com.isxcode.oxygen.flysql.core.FlysqlSqlCache;
 import com.isxcode.oxygen.flysql.enums.DataBaseType;
 import com.isxcode.oxygen.flysql.enums.SqlType;
 import com.isxcode.oxygen.flysql.properties.FlysqlProperties;
+import java.util.List;
+import java.util.concurrent.Executor;
 import lombok.Data;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -22,6 +27,9 @@
 	/** 数据源对应的jdbcTemplate */
 	private JdbcTemplate jdbcTemplate;
 
+	/** 只读副本对应的jdbcTemplate, 仅用于查询, 无副本为null */
+	private JdbcTemplate readJdbcTemplate;
+
 	/** 视图名称 */
 	private String viewSqlName;
 
@@ -37,6 +45,30 @@
 	/** 暂时日志 */
 	private FlysqlProperties flysqlProperties;
 
+	/** 查询结构对应的sql缓存 */
+	private FlysqlSqlCache sqlCache;
+
+	/** 分页并发执行count的线程池 */
+	private Executor pageExecutor;
+
+	/** 异步查询的线程池 */
+	private Executor asyncExecutor;
+
+	/** 查询统计 */
+	private FlysqlMetrics metrics;
+
+	/** 查询结果缓存 */
+	private FlysqlResultCache resultCache;
+
+	/** 分片对应的jdbcTemplate, 不分片为null */
+	private List<JdbcTemplate> shardJdbcTemplates;
+
+	/** 分片只读副本对应的jdbcTemplate, 仅用于查询 */
+	private List<JdbcTemplate> readShardJdbcTemplates;
+
+	/** 多分片并发查询的线程池 */
+	private Executor shardExecutor;
+
 	public FlysqlKey(
 			DataBaseType dataBaseType,
 			SqlType sqlType,
@@ -0,0 +1,18 @@
+package com.isxcode.oxygen.flysql.entity;
+
+import java.util.List;
+import lombok.Data;
+
+/**
+ * keyset page, nextToken is null when no more data
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Data
+public class FlysqlKeysetPage<T> {
+
+	private List<T> page;
+
+	private String nextToken;
+}
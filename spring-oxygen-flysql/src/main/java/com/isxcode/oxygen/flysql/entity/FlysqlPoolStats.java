@@ -0,0 +1,27 @@
+package com.isxcode.oxygen.flysql.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * connection pool stats of one datasource
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Data
+@AllArgsConstructor
+public class FlysqlPoolStats {
+
+	/** connections in use */
+	private int active;
+
+	private int idle;
+
+	private int total;
+
+	/** threads waiting for connection */
+	private int waiting;
+
+	private int maximumPoolSize;
+}
@@ -16,6 +16,8 @@
 package com.isxcode.oxygen.flysql.entity;
 
 import com.isxcode.oxygen.flysql.enums.SqlOperateType;
+import java.util.Collections;
+import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -35,6 +37,17 @@ public class SqlCondition {
 	/** 字段名 */
 	private String columnName;
 
-	/** 字段内容 */
+	/** 字段内容, 预编译模式下为占位符 */
 	private Object value;
+
+	/** 预编译模式下绑定的参数 */
+	private List<Object> parameters;
+
+	public SqlCondition(SqlOperateType operateType, String columnName, Object value) {
+
+		this.operateType = operateType;
+		this.columnName = columnName;
+		this.value = value;
+		this.parameters = Collections.emptyList();
+	}
 }
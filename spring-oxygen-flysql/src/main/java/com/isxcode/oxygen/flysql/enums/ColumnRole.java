@@ -0,0 +1,34 @@
+package com.isxcode.oxygen.flysql.enums;
+
+/**
+ * column role by annotation
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public enum ColumnRole {
+
+	/** @RowId */
+	ROW_ID,
+
+	/** @CreatedBy */
+	CREATED_BY,
+
+	/** @CreatedDate */
+	CREATED_DATE,
+
+	/** @LastModifiedBy */
+	LAST_MODIFIED_BY,
+
+	/** @LastModifiedDate */
+	LAST_MODIFIED_DATE,
+
+	/** @Version */
+	VERSION,
+
+	/** @IsDelete */
+	IS_DELETE,
+
+	/** normal column */
+	NORMAL,
+}
@@ -0,0 +1,16 @@
+package com.isxcode.oxygen.flysql.enums;
+
+/**
+ * replica load balance type enum
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public enum ReplicaBalanceType {
+
+	/** next healthy replica in turn */
+	ROUND_ROBIN,
+
+	/** healthy replica with least connections in use */
+	LEAST_OUTSTANDING,
+}
@@ -0,0 +1,22 @@
+package com.isxcode.oxygen.flysql.enums;
+
+/**
+ * shard strategy enum
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public enum ShardStrategy {
+
+	/** hash code of key string, mod shards */
+	HASH,
+
+	/** numeric key mod shards */
+	MOD,
+
+	/** numeric key in ranges */
+	RANGE,
+
+	/** by FlysqlShardFunction */
+	CUSTOM,
+}
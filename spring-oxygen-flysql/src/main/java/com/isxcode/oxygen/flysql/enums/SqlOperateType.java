@@ -83,6 +83,18 @@ public enum SqlOperateType {
 
 	/** andEnd() */
 	AND_END(" ) "),
+
+	/** queryKeyset() */
+	KEYSET(""),
+
+	/** in() and notIn() of large list, by chunks or array */
+	IN_LIST(""),
+
+	/** groupBy() */
+	GROUP_BY(" group by "),
+
+	/** having() */
+	HAVING(" having "),
 	;
 
 	@Getter private final String code;
@@ -15,4 +15,9 @@ public FlysqlException(String message) {
 
 		super("[oxygen-flysql]==> " + message);
 	}
+
+	public FlysqlException(String message, Throwable cause) {
+
+		super("[oxygen-flysql]==> " + message, cause);
+	}
 }
@@ -0,0 +1,15 @@
+package com.isxcode.oxygen.flysql.exception;
+
+/**
+ * update by stale @Version, row changed by others
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+public class FlysqlOptimisticLockException extends FlysqlException {
+
+	public FlysqlOptimisticLockException(String message) {
+
+		super(message);
+	}
+}
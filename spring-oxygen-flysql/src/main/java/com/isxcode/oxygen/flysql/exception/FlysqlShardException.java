@@ -0,0 +1,29 @@
+package com.isxcode.oxygen.flysql.exception;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * write of sharded table failed on one shard, shards do not share a transaction and the shards
+ * before it keep their writes
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Getter
+public class FlysqlShardException extends FlysqlException {
+
+	/** shards which finished the write */
+	private final List<Integer> succeededShards;
+
+	/** shard which failed */
+	private final int failedShard;
+
+	public FlysqlShardException(
+			String message, List<Integer> succeededShards, int failedShard, Throwable cause) {
+
+		super(message, cause);
+		this.succeededShards = succeededShards;
+		this.failedShard = failedShard;
+	}
+}
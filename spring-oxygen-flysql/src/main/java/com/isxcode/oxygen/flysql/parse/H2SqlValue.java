@@ -16,4 +16,9 @@ public String getDateValue(String val) {
 			return null;
 		}
 	}
+
+	@Override
+	public boolean supportArrayIn() {
+		return true;
+	}
 }
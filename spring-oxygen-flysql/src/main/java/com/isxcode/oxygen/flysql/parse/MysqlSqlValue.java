@@ -1,3 +1,40 @@
 package com.isxcode.oxygen.flysql.parse;
 
-public class MysqlSqlValue implements SqlValue {}
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MysqlSqlValue implements SqlValue {
+
+	/** mysql driver only streams rows with Integer.MIN_VALUE */
+	@Override
+	public int getStreamFetchSize(int fetchSize) {
+		return Integer.MIN_VALUE;
+	}
+
+	/** key column must be primary key or unique key */
+	@Override
+	public String getUpsertSql(
+			String tableName,
+			List<String> columns,
+			String keyColumn,
+			List<String> updateColumns,
+			List<String> versionColumns) {
+
+		List<String> updateSets = new ArrayList<>();
+		updateColumns.forEach(column -> updateSets.add(column + " = values(" + column + ")"));
+		versionColumns.forEach(column -> updateSets.add(column + " = coalesce(" + column + ", 0) + 1"));
+		if (updateSets.isEmpty()) {
+			updateSets.add(keyColumn + " = " + keyColumn);
+		}
+
+		return "insert into "
+				+ tableName
+				+ " ("
+				+ String.join(",", columns)
+				+ ") values ("
+				+ String.join(",", Collections.nCopies(columns.size(), "?"))
+				+ ") on duplicate key update "
+				+ String.join(",", updateSets);
+	}
+}
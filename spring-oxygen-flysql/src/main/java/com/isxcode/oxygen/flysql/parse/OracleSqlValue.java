@@ -2,6 +2,8 @@
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 public class OracleSqlValue implements SqlValue {
 
@@ -40,4 +42,44 @@ public String getLocalDateTimeValue(String val) {
 	public String getLocalDateValue(String val) {
 		return "TO_DATE('" + val + "', 'YYYY-MM-DD')";
 	}
+
+	@Override
+	public boolean supportMultiValues() {
+		return false;
+	}
+
+	@Override
+	public int getMaxInValues() {
+		return 1000;
+	}
+
+	@Override
+	public boolean supportRowValue() {
+		return false;
+	}
+
+	@Override
+	public String getLimitSql(String sqlString, Integer limit) {
+		return sqlString + " fetch first " + limit + " rows only";
+	}
+
+	@Override
+	public String getPageSql(String sqlString, Integer offset, Integer size, boolean orderBy) {
+		return sqlString + " offset " + offset + " rows fetch next " + size + " rows only";
+	}
+
+	@Override
+	public String getUpsertSql(
+			String tableName,
+			List<String> columns,
+			String keyColumn,
+			List<String> updateColumns,
+			List<String> versionColumns) {
+
+		// no values table in oracle, select from dual
+		List<String> sourceColumns = new ArrayList<>();
+		columns.forEach(column -> sourceColumns.add("? " + column));
+		String source = "(select " + String.join(",", sourceColumns) + " from dual) s";
+		return getMergeSql(tableName, source, columns, keyColumn, updateColumns, versionColumns);
+	}
 }
@@ -3,9 +3,15 @@
 import com.isxcode.oxygen.flysql.core.FlysqlExecute;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class SqlServerSqlValue implements SqlValue {
 
+	private static final Pattern SELECT_PATTERN =
+			Pattern.compile("^\\s*select\\s+(distinct\\s+)?", Pattern.CASE_INSENSITIVE);
+
 	@Override
 	public String getBooleanValue(String val) {
 		return Boolean.getBoolean(val) ? "1" : "0";
@@ -44,4 +50,66 @@ public String getLocalDateTimeValue(String val) {
 	public String getLocalDateValue(String val) {
 		return "N'" + val + "'";
 	}
+
+	@Override
+	public int getMaxParameters() {
+		return 2000;
+	}
+
+	@Override
+	public boolean supportRowValue() {
+		return false;
+	}
+
+	@Override
+	public String getAggregateSql(String function, String columnName) {
+
+		// avg of int column is int in sql server, keep the decimals
+		if ("avg".equals(function)) {
+			return "avg(" + columnName + " * 1.0)";
+		}
+		return function + "(" + columnName + ")";
+	}
+
+	@Override
+	public String getLimitSql(String sqlString, Integer limit) {
+
+		// select top n, no need order by
+		Matcher matcher = SELECT_PATTERN.matcher(sqlString);
+		if (matcher.find()) {
+			return sqlString.substring(0, matcher.end())
+					+ "top "
+					+ limit
+					+ " "
+					+ sqlString.substring(matcher.end());
+		}
+		return getPageSql(sqlString, 0, limit, false);
+	}
+
+	@Override
+	public String getPageSql(String sqlString, Integer offset, Integer size, boolean orderBy) {
+
+		// offset fetch must after order by
+		return sqlString
+				+ (orderBy ? "" : " order by (select null)")
+				+ " offset "
+				+ offset
+				+ " rows fetch next "
+				+ size
+				+ " rows only";
+	}
+
+	@Override
+	public String getUpsertSql(
+			String tableName,
+			List<String> columns,
+			String keyColumn,
+			List<String> updateColumns,
+			List<String> versionColumns) {
+
+		// merge must end with semicolon
+		return SqlValue.super.getUpsertSql(
+						tableName, columns, keyColumn, updateColumns, versionColumns)
+				+ ";";
+	}
 }
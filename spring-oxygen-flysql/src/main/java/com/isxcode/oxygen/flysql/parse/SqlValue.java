@@ -3,6 +3,9 @@
 import com.isxcode.oxygen.flysql.core.FlysqlExecute;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public interface SqlValue {
 
@@ -35,4 +38,102 @@ default String getLocalDateTimeValue(String val) {
 	default String getLocalDateValue(String val) {
 		return FlysqlExecute.addSingleQuote(val);
 	}
+
+	/** support insert into table values (...),(...) */
+	default boolean supportMultiValues() {
+		return true;
+	}
+
+	/** max bind parameters in one statement */
+	default int getMaxParameters() {
+		return 65535;
+	}
+
+	/** max values in one in list */
+	default int getMaxInValues() {
+		return Integer.MAX_VALUE;
+	}
+
+	/** support where k = any(?) with one array parameter */
+	default boolean supportArrayIn() {
+		return false;
+	}
+
+	/** support where (k1,k2) > (?,?) */
+	default boolean supportRowValue() {
+		return true;
+	}
+
+	/** aggregate function of column, like sum(AMOUNT) */
+	default String getAggregateSql(String function, String columnName) {
+		return function + "(" + columnName + ")";
+	}
+
+	/** limit rows of the sql */
+	default String getLimitSql(String sqlString, Integer limit) {
+		return sqlString + " limit " + limit;
+	}
+
+	/** skip offset rows and limit size rows, orderBy is whether sql has order by */
+	default String getPageSql(String sqlString, Integer offset, Integer size, boolean orderBy) {
+		return sqlString + " limit " + size + " offset " + offset;
+	}
+
+	/** fetch size of stream query */
+	default int getStreamFetchSize(int fetchSize) {
+		return fetchSize;
+	}
+
+	/** insert or update one row by key column, version columns add 1 when update */
+	default String getUpsertSql(
+			String tableName,
+			List<String> columns,
+			String keyColumn,
+			List<String> updateColumns,
+			List<String> versionColumns) {
+
+		String source =
+				"(values ("
+						+ String.join(",", Collections.nCopies(columns.size(), "?"))
+						+ ")) s ("
+						+ String.join(",", columns)
+						+ ")";
+		return getMergeSql(tableName, source, columns, keyColumn, updateColumns, versionColumns);
+	}
+
+	/** merge one row of source s into table t */
+	default String getMergeSql(
+			String tableName,
+			String source,
+			List<String> columns,
+			String keyColumn,
+			List<String> updateColumns,
+			List<String> versionColumns) {
+
+		List<String> updateSets = new ArrayList<>();
+		updateColumns.forEach(column -> updateSets.add("t." + column + " = s." + column));
+		versionColumns.forEach(
+				column -> updateSets.add("t." + column + " = coalesce(t." + column + ", 0) + 1"));
+
+		List<String> sourceValues = new ArrayList<>();
+		columns.forEach(column -> sourceValues.add("s." + column));
+
+		return "merge into "
+				+ tableName
+				+ " t using "
+				+ source
+				+ " on (t."
+				+ keyColumn
+				+ " = s."
+				+ keyColumn
+				+ ")"
+				+ (updateSets.isEmpty()
+						? ""
+						: " when matched then update set " + String.join(",", updateSets))
+				+ " when not matched then insert ("
+				+ String.join(",", columns)
+				+ ") values ("
+				+ String.join(",", sourceValues)
+				+ ")";
+	}
 }
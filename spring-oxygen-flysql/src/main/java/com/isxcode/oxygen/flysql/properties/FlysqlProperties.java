@@ -1,5 +1,9 @@
 package com.isxcode.oxygen.flysql.properties;
 
+import com.isxcode.oxygen.flysql.enums.DataBaseType;
+import com.isxcode.oxygen.flysql.enums.ReplicaBalanceType;
+import com.zaxxer.hikari.HikariConfig;
+import java.util.List;
 import java.util.Map;
 import lombok.Data;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
@@ -19,9 +23,66 @@ public class FlysqlProperties {
 	/** jdbc properties */
 	private Map<String, DataSourceProperties> datasource;
 
+	/** Map[datasource name, hikari pool config] */
+	private Map<String, HikariConfig> hikari;
+
 	/** mongo properties */
 	private Map<String, MongoProperties> mongodb;
 
+	/** Map[datasource name, replica datasource names], key primary for spring datasource */
+	private Map<String, List<String>> replicas;
+
+	/** how to choose replica for select */
+	private ReplicaBalanceType replicaBalance = ReplicaBalanceType.ROUND_ROBIN;
+
+	/** skip replica failed to connect for millis */
+	private Long replicaDownMillis = 30000L;
+
+	/** datasource dialect, skip detecting by a live connection */
+	private Map<String, DataBaseType> dialect;
+
+	/** bind condition values by prepared statement */
+	private Boolean preparedStatement = false;
+
+	/** in list longer than it binds one array when database supports, else splits into chunks */
+	private Integer inListThreshold = 1000;
+
+	/** max cached query shapes in prepared mode, 0 to disable */
+	private Integer sqlCacheSize = 1024;
+
+	/** max cached select results of @FlysqlCache table, 0 to disable */
+	private Integer resultCacheSize = 1024;
+
+	/** rows fetched by each round trip in stream query */
+	private Integer fetchSize = 1000;
+
+	/** rows in one jdbc batch for batchSave */
+	private Integer batchSize = 1000;
+
+	/** rewrite each batch into one multi-row insert, when database supports */
+	private Boolean batchMultiValues = false;
+
+	/** run mongo bulk writes in order and stop at the first error */
+	private Boolean mongoBulkOrdered = false;
+
+	/** run page query and count query of queryPage concurrently */
+	private Boolean pageConcurrent = false;
+
+	/** threads of page executor, when virtual thread not available */
+	private Integer pageThreads = 16;
+
+	/** skip count query, when page 1 shorter than size */
+	private Boolean pageSkipCount = true;
+
+	/** max running queries of async executor */
+	private Integer asyncThreads = 16;
+
+	/** threads of shard executor to query shards in parallel, when virtual thread not available */
+	private Integer shardThreads = 16;
+
+	/** max page * size of queryPage on more than one shard, each shard reads that many rows */
+	private Integer shardPageMaxRows = 10000;
+
 	/** show logs */
 	private Boolean showLog = true;
 }
@@ -4,12 +4,41 @@
 import com.isxcode.oxygen.core.reflect.ReflectUtils;
 import com.isxcode.oxygen.flysql.annotation.ColumnName;
 import com.isxcode.oxygen.flysql.annotation.TableName;
+import com.isxcode.oxygen.flysql.constant.FlysqlConstants;
 import com.isxcode.oxygen.flysql.entity.ColumnProperties;
+import com.isxcode.oxygen.flysql.entity.EntityProperty;
+import com.isxcode.oxygen.flysql.entity.FlysqlPoolStats;
+import com.isxcode.oxygen.flysql.enums.DataBaseType;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import com.isxcode.oxygen.flysql.exception.FlysqlOptimisticLockException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 /**
  * flysql utils
@@ -17,6 +46,7 @@
  * @author ispong
  * @since 0.0.2
  */
+@Slf4j
 public class FlysqlUtils {
 
 	/**
@@ -38,11 +68,15 @@ public static Map<String, ColumnProperties> parseBeanProperties(Class<?> generic
 				ColumnProperties metaColumnProperty = new ColumnProperties();
 				metaColumnProperty.setType(propertyMeta.getPropertyType().getName());
 				try {
+					Method accessMethod =
+							propertyMeta.getReadMethod() == null
+									? propertyMeta.getWriteMethod()
+									: propertyMeta.getReadMethod();
+					if (accessMethod == null) {
+						throw new NoSuchFieldException(propertyMeta.getName());
+					}
 					Field metaField =
-							propertyMeta
-									.getReadMethod()
-									.getDeclaringClass()
-									.getDeclaredField(propertyMeta.getName());
+							accessMethod.getDeclaringClass().getDeclaredField(propertyMeta.getName());
 					// 如果用户自定义注解，则使用用户自己定义的字段
 					if (metaField.isAnnotationPresent(ColumnName.class)) {
 						metaColumnProperty.setName(metaField.getAnnotation(ColumnName.class).value());
@@ -73,4 +107,242 @@ public static String getTableName(Class<?> targetClass) {
 		}
 		return null;
 	}
+
+	/**
+	 * encode keyset values to an opaque token
+	 *
+	 * @param keyValues sort key values of the last row
+	 * @return token
+	 * @since 1.11.0
+	 */
+	public static String encodeKeyset(List<Object> keyValues) {
+
+		List<String> tokenList = new ArrayList<>();
+		for (Object metaValue : keyValues) {
+			String valueStr =
+					metaValue instanceof Date
+							? String.valueOf(((Date) metaValue).getTime())
+							: String.valueOf(metaValue);
+			tokenList.add(
+					Base64.getUrlEncoder()
+							.withoutPadding()
+							.encodeToString(valueStr.getBytes(StandardCharsets.UTF_8)));
+		}
+		return String.join(".", tokenList);
+	}
+
+	/**
+	 * decode keyset token to values, by sort key properties
+	 *
+	 * @param token token
+	 * @param keyProperties sort key properties
+	 * @return keyValues
+	 * @since 1.11.0
+	 */
+	public static List<Object> decodeKeyset(String token, List<EntityProperty> keyProperties) {
+
+		String[] tokens = token.split("\\.", -1);
+		if (tokens.length != keyProperties.size()) {
+			throw new FlysqlException("keyset token not match orderBy");
+		}
+
+		List<Object> keyValues = new ArrayList<>();
+		try {
+			for (int i = 0; i < tokens.length; i++) {
+				String valueStr =
+						new String(Base64.getUrlDecoder().decode(tokens[i]), StandardCharsets.UTF_8);
+				switch (keyProperties.get(i).getClassName()) {
+					case ReflectConstants.STRING:
+						keyValues.add(valueStr);
+						break;
+					case ReflectConstants.INTEGER:
+						keyValues.add(Integer.parseInt(valueStr));
+						break;
+					case ReflectConstants.LONG:
+						keyValues.add(Long.parseLong(valueStr));
+						break;
+					case ReflectConstants.DOUBLE:
+						keyValues.add(Double.parseDouble(valueStr));
+						break;
+					case ReflectConstants.BIG_DECIMAL:
+						keyValues.add(new BigDecimal(valueStr));
+						break;
+					case ReflectConstants.LOCAL_DATE:
+						keyValues.add(LocalDate.parse(valueStr));
+						break;
+					case ReflectConstants.LOCAL_DATE_TIME:
+						keyValues.add(LocalDateTime.parse(valueStr));
+						break;
+					case ReflectConstants.DATE:
+						keyValues.add(new Date(Long.parseLong(valueStr)));
+						break;
+					default:
+						throw new FlysqlException(
+								"keyset not support " + keyProperties.get(i).getClassName());
+				}
+			}
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new FlysqlException("keyset token is illegal");
+		}
+		return keyValues;
+	}
+
+	/**
+	 * page executor, virtual thread per task when jdk support
+	 *
+	 * @param threads threads of fixed pool, when virtual thread not available
+	 * @return Executor
+	 * @since 1.11.0
+	 */
+	public static Executor newPageExecutor(int threads) {
+
+		Executor virtualExecutor = newVirtualExecutor();
+		return virtualExecutor == null ? newDaemonPool("flysql-page-", threads) : virtualExecutor;
+	}
+
+	/**
+	 * shard executor, virtual thread per task when jdk support
+	 *
+	 * @param threads threads of fixed pool, when virtual thread not available
+	 * @return Executor
+	 * @since 1.11.0
+	 */
+	public static Executor newShardExecutor(int threads) {
+
+		Executor virtualExecutor = newVirtualExecutor();
+		return virtualExecutor == null ? newDaemonPool("flysql-shard-", threads) : virtualExecutor;
+	}
+
+	/**
+	 * async executor, at most threads tasks run at the same time
+	 *
+	 * @param threads max running tasks
+	 * @return Executor
+	 * @since 1.11.0
+	 */
+	public static Executor newAsyncExecutor(int threads) {
+
+		Executor virtualExecutor = newVirtualExecutor();
+		if (virtualExecutor == null) {
+			return newDaemonPool("flysql-async-", threads);
+		}
+
+		// virtual threads are not limited, bound by permits to protect connection pool
+		Semaphore permits = new Semaphore(threads);
+		return task ->
+				virtualExecutor.execute(
+						() -> {
+							permits.acquireUninterruptibly();
+							try {
+								task.run();
+							} finally {
+								permits.release();
+							}
+						});
+	}
+
+	/** virtual thread per task executor, null when jdk not support */
+	private static Executor newVirtualExecutor() {
+
+		try {
+			return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	private static Executor newDaemonPool(String threadPrefix, int threads) {
+
+		AtomicInteger threadIndex = new AtomicInteger();
+		return Executors.newFixedThreadPool(
+				threads,
+				runnable -> {
+					Thread thread = new Thread(runnable, threadPrefix + threadIndex.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	/**
+	 * parse database type from connection metadata
+	 *
+	 * @param jdbcTemplate jdbcTemplate
+	 * @return DataBaseType
+	 * @since 1.11.0
+	 */
+	public static DataBaseType parseDataBaseType(JdbcTemplate jdbcTemplate) {
+
+		try (Connection connection =
+				Objects.requireNonNull(jdbcTemplate.getDataSource()).getConnection()) {
+			String databaseName = connection.getMetaData().getDatabaseProductName();
+			switch (databaseName) {
+				case FlysqlConstants.ORACLE_DB:
+					return DataBaseType.ORACLE;
+				case FlysqlConstants.H2_DB:
+					return DataBaseType.H2;
+				case FlysqlConstants.SQL_SERVER_DB:
+					return DataBaseType.SQL_SERVER;
+				case FlysqlConstants.MYSQL_DB:
+				default:
+					return DataBaseType.MYSQL;
+			}
+		} catch (SQLException e) {
+			log.error(e.getMessage());
+			throw new FlysqlException("datasource link error");
+		}
+	}
+
+	/**
+	 * run again when version changed by others, action must read the row again
+	 *
+	 * @param maxAttempts max run times
+	 * @param action read and update
+	 * @param <T> T
+	 * @return result of action
+	 * @since 1.11.0
+	 */
+	public static <T> T retryOnVersionConflict(int maxAttempts, Supplier<T> action) {
+
+		for (int attempt = 1; ; attempt++) {
+			try {
+				return action.get();
+			} catch (FlysqlOptimisticLockException e) {
+				if (attempt >= maxAttempts) {
+					throw e;
+				}
+				log.debug("version conflict, retry {}", attempt);
+			}
+		}
+	}
+
+	/**
+	 * hikari pool stats
+	 *
+	 * @param dataSource dataSource
+	 * @return stats, null when not hikari or pool not started
+	 * @since 1.11.0
+	 */
+	public static FlysqlPoolStats getPoolStats(DataSource dataSource) {
+
+		HikariDataSource hikariDataSource;
+		try {
+			if (dataSource == null || !dataSource.isWrapperFor(HikariDataSource.class)) {
+				return null;
+			}
+			hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+		} catch (SQLException e) {
+			return null;
+		}
+
+		HikariPoolMXBean poolBean = hikariDataSource.getHikariPoolMXBean();
+		if (poolBean == null) {
+			return null;
+		}
+		return new FlysqlPoolStats(
+				poolBean.getActiveConnections(),
+				poolBean.getIdleConnections(),
+				poolBean.getTotalConnections(),
+				poolBean.getThreadsAwaitingConnection(),
+				hikariDataSource.getMaximumPoolSize());
+	}
 }
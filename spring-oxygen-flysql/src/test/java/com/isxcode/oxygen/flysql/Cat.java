@@ -0,0 +1,47 @@
+package com.isxcode.oxygen.flysql;
+
+import com.isxcode.oxygen.flysql.annotation.FlysqlCache;
+import com.isxcode.oxygen.flysql.annotation.IsDelete;
+import com.isxcode.oxygen.flysql.annotation.LastModifiedBy;
+import com.isxcode.oxygen.flysql.annotation.LastModifiedDate;
+import com.isxcode.oxygen.flysql.annotation.RowId;
+import com.isxcode.oxygen.flysql.annotation.TableName;
+import com.isxcode.oxygen.flysql.annotation.Version;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * cat, with row id, version and select cache
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@TableName("CATS")
+@FlysqlCache
+public class Cat {
+
+	@RowId private String id;
+
+	private String name;
+
+	private Integer amount;
+
+	@Version private Integer version;
+
+	@IsDelete private Integer isDelete;
+
+	@LastModifiedBy private String lastModifiedBy;
+
+	@LastModifiedDate private LocalDateTime lastModifiedDate;
+
+	public Cat(String id, String name, Integer amount) {
+		this.id = id;
+		this.name = name;
+		this.amount = amount;
+	}
+}
@@ -0,0 +1,24 @@
+package com.isxcode.oxygen.flysql;
+
+import lombok.Data;
+
+/**
+ * cat name as enum, for into() of types jdbc can not read
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Data
+public class CatBreed {
+
+	public enum Breed {
+		TABBY,
+		SIAMESE
+	}
+
+	private String id;
+
+	private Breed name;
+
+	private Short amount;
+}
@@ -0,0 +1,19 @@
+package com.isxcode.oxygen.flysql;
+
+import lombok.Data;
+
+/**
+ * name and total amount of cats, for into()
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@Data
+public class CatTotal {
+
+	private String name;
+
+	private Long total;
+
+	private Double average;
+}
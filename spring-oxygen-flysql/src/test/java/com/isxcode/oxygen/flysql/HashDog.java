@@ -0,0 +1,18 @@
+package com.isxcode.oxygen.flysql;
+
+import com.isxcode.oxygen.flysql.annotation.FlysqlShard;
+import com.isxcode.oxygen.flysql.annotation.TableName;
+import com.isxcode.oxygen.flysql.enums.ShardStrategy;
+
+/**
+ * dog split by hash of id
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@TableName("DOGS_T")
+@FlysqlShard(
+		key = "id",
+		datasources = {"shard0", "shard1"},
+		strategy = ShardStrategy.HASH)
+public class HashDog extends Dog {}
@@ -0,0 +1,19 @@
+package com.isxcode.oxygen.flysql;
+
+import com.isxcode.oxygen.flysql.annotation.FlysqlShard;
+import com.isxcode.oxygen.flysql.annotation.TableName;
+import com.isxcode.oxygen.flysql.enums.ShardStrategy;
+
+/**
+ * dog split by range of id
+ *
+ * @author ispong
+ * @since 1.11.0
+ */
+@TableName("DOGS_T")
+@FlysqlShard(
+		key = "id",
+		datasources = {"shard0", "shard1"},
+		strategy = ShardStrategy.RANGE,
+		ranges = {100})
+public class RangeDog extends Dog {}
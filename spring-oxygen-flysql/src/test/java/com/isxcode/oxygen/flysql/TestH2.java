@@ -2,22 +2,57 @@
 
 import com.isxcode.oxygen.flysql.common.OxygenHolder;
 import com.isxcode.oxygen.flysql.config.FlysqlAutoConfiguration;
+import com.isxcode.oxygen.flysql.constant.FlysqlConstants;
 import com.isxcode.oxygen.flysql.core.Flysql;
+import com.isxcode.oxygen.flysql.core.FlysqlExecute;
+import com.isxcode.oxygen.flysql.core.FlysqlResultCache;
+import com.isxcode.oxygen.flysql.entity.FlysqlKeysetPage;
 import com.isxcode.oxygen.flysql.entity.FlysqlPage;
+import com.isxcode.oxygen.flysql.entity.FlysqlPoolStats;
+import com.isxcode.oxygen.flysql.enums.DataBaseType;
 import com.isxcode.oxygen.flysql.enums.OrderType;
+import com.isxcode.oxygen.flysql.enums.SqlOperateType;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
+import com.isxcode.oxygen.flysql.exception.FlysqlOptimisticLockException;
+import com.isxcode.oxygen.flysql.exception.FlysqlShardException;
+import com.isxcode.oxygen.flysql.properties.FlysqlProperties;
+import com.isxcode.oxygen.flysql.utils.FlysqlUtils;
 import com.ulisesbocchio.jasyptspringboot.configuration.EnableEncryptablePropertiesConfiguration;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @JdbcTest
 @ContextConfiguration(
@@ -28,9 +63,14 @@ public class TestH2 {
 
 	private final Flysql flysql;
 
-	public TestH2(@Qualifier("flysql") Flysql flysql) {
+	private final TransactionTemplate transactionTemplate;
+
+	public TestH2(
+			@Qualifier("flysql") Flysql flysql,
+			@Autowired PlatformTransactionManager transactionManager) {
 
 		this.flysql = flysql;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	@Test
@@ -91,6 +131,10 @@ public void testFlysql() {
 		FlysqlPage<Dog> dogQueryPage = flysql.build().select(Dog.class).queryPage(1, 2);
 		System.out.println(dogQueryPage);
 
+		List<Dog> dogForEach = new ArrayList<>();
+		flysql.build().select(Dog.class).forEach(dogForEach::add);
+		Assertions.assertEquals(flysql.build().select(Dog.class).count(), dogForEach.size());
+
 		System.out.println(
 				"============================ show single data ===================================");
 		Dog dogGetOne = flysql.build().select(Dog.class).eq("name", "rose").getOne();
@@ -206,4 +250,803 @@ public void testAll() {
 
 		OxygenHolder.setUserUuid("userId");
 	}
+
+	@Test
+	public void testPreparedStatement() {
+
+		Flysql preparedFlysql = newFlysql(true);
+		flysql
+				.build()
+				.insert(Dog.class)
+				.batchSave(Arrays.asList(newDog(11, "o'neil", 1.1), newDog(12, "mike", 2.2)));
+		preparedFlysql.build().insert(Dog.class).save(newDog(13, "mia", 3.3));
+
+		for (Flysql metaFlysql : Arrays.asList(flysql, preparedFlysql)) {
+			Assertions.assertEquals(
+					"o'neil", metaFlysql.build().select(Dog.class).eq("name", "o'neil").getOne().getName());
+			Assertions.assertEquals(
+					Arrays.asList(12, 13),
+					metaFlysql
+							.build()
+							.select(Dog.class)
+							.in("id", 12, 13)
+							.like("name", "m")
+							.between("amountDouble", 2, 4)
+							.orderBy("id", OrderType.ASC)
+							.query()
+							.stream()
+							.map(Dog::getId)
+							.collect(Collectors.toList()));
+			Assertions.assertEquals(
+					2, metaFlysql.build().select(Dog.class).gt("id", 10).ne("name", "mia").count());
+		}
+
+		preparedFlysql.build().update(Dog.class).update("name", "o'hara").eq("id", 11).doUpdate();
+		Assertions.assertEquals(
+				"o'hara", flysql.build().select(Dog.class).eq("id", 11).getOne().getName());
+
+		// sql() replaces the where before, update of sql() is not allowed
+		Assertions.assertEquals(
+				1,
+				preparedFlysql
+						.build()
+						.select(Dog.class)
+						.eq("name", "mike")
+						.sql("select * from DOGS_T where id = 11")
+						.query()
+						.size());
+		Assertions.assertThrows(
+				FlysqlException.class,
+				() ->
+						preparedFlysql
+								.build()
+								.update(Dog.class)
+								.update("name", "rose")
+								.sql("select * from DOGS_T")
+								.doUpdate());
+	}
+
+	@Test
+	public void testQueryPage() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 31; i <= 35; i++) {
+			dogs.add(newDog(i, "page", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+
+		for (Flysql metaFlysql : Arrays.asList(flysql, newFlysql(true))) {
+			FlysqlPage<Dog> dogPage =
+					metaFlysql
+							.build()
+							.select(Dog.class)
+							.eq("name", "page")
+							.orderBy("id", OrderType.DESC)
+							.queryPage(2, 2);
+			Assertions.assertEquals(5, dogPage.getTotal());
+			Assertions.assertEquals(
+					Arrays.asList(33, 32),
+					dogPage.getPage().stream().map(Dog::getId).collect(Collectors.toList()));
+			Assertions.assertEquals(
+					5,
+					metaFlysql
+							.build()
+							.select(Dog.class)
+							.eq("name", "page")
+							.orderBy("id", OrderType.ASC)
+							.count());
+		}
+	}
+
+	@Test
+	public void testQueryKeyset() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 21; i <= 25; i++) {
+			dogs.add(newDog(i, "keyset", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+
+		FlysqlExecute<Dog> dogExecute =
+				flysql.build().select(Dog.class).eq("name", "keyset").orderBy("id", OrderType.ASC);
+		FlysqlKeysetPage<Dog> firstPage = dogExecute.queryKeyset(2, null);
+		FlysqlKeysetPage<Dog> secondPage = dogExecute.queryKeyset(2, firstPage.getNextToken());
+		FlysqlKeysetPage<Dog> lastPage = dogExecute.queryKeyset(2, secondPage.getNextToken());
+		Assertions.assertEquals(
+				Arrays.asList(23, 24),
+				secondPage.getPage().stream().map(Dog::getId).collect(Collectors.toList()));
+		Assertions.assertEquals(25, lastPage.getPage().get(0).getId());
+		Assertions.assertNull(lastPage.getNextToken());
+
+		// the executor is not changed by keyset pages
+		Assertions.assertEquals(5, dogExecute.count());
+		Assertions.assertEquals(5, dogExecute.query().size());
+	}
+
+	@Test
+	public void testQueryKeysetOr() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 31; i <= 35; i++) {
+			dogs.add(newDog(i, i % 2 == 0 ? "keysetEven" : "keysetOdd", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+
+		// every or() branch is bounded by the seek
+		FlysqlExecute<Dog> dogExecute =
+				flysql
+						.build()
+						.select(Dog.class)
+						.eq("name", "keysetEven")
+						.or()
+						.eq("name", "keysetOdd")
+						.orderBy("id", OrderType.ASC);
+		List<Integer> dogIds = new ArrayList<>();
+		String token = null;
+		do {
+			FlysqlKeysetPage<Dog> dogPage = dogExecute.queryKeyset(2, token);
+			dogPage.getPage().forEach(dog -> dogIds.add(dog.getId()));
+			token = dogPage.getNextToken();
+		} while (token != null && dogIds.size() < 10);
+		Assertions.assertEquals(Arrays.asList(31, 32, 33, 34, 35), dogIds);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testStream() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 71; i <= 75; i++) {
+			dogs.add(newDog(i, "stream", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+		List<Integer> dogIds = Arrays.asList(75, 74, 73, 72, 71);
+
+		try {
+			FlysqlExecute<Dog> dogExecute =
+					flysql.build().select(Dog.class).eq("name", "stream").orderBy("id", OrderType.DESC);
+			try (Stream<Dog> dogStream = dogExecute.stream()) {
+				Assertions.assertEquals(dogIds, dogStream.map(Dog::getId).collect(Collectors.toList()));
+			}
+
+			List<Integer> forEachIds = new ArrayList<>();
+			dogExecute.forEach(dog -> forEachIds.add(dog.getId()));
+			Assertions.assertEquals(dogIds, forEachIds);
+
+			// cursor holds one connection until closed
+			FlysqlPoolStats poolStats = FlysqlUtils.getPoolStats(flysql.getDefaultDataSource());
+			Assertions.assertNotNull(poolStats);
+			int active = poolStats.getActive();
+			List<Integer> cursorIds = new ArrayList<>();
+			try (CloseableIterator<Dog> dogCursor = dogExecute.cursor()) {
+				for (int i = 0; i < 2 && dogCursor.hasNext(); i++) {
+					cursorIds.add(dogCursor.next().getId());
+				}
+				Assertions.assertEquals(
+						active + 1, FlysqlUtils.getPoolStats(flysql.getDefaultDataSource()).getActive());
+			}
+			Assertions.assertEquals(Arrays.asList(75, 74), cursorIds);
+			Assertions.assertEquals(
+					active, FlysqlUtils.getPoolStats(flysql.getDefaultDataSource()).getActive());
+		} finally {
+			flysql.build().delete(Dog.class).eq("name", "stream").doDelete();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testQueryAsync() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 81; i <= 85; i++) {
+			dogs.add(newDog(i, "async", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+
+		try {
+			FlysqlExecute<Dog> dogExecute =
+					flysql.build().select(Dog.class).eq("name", "async").orderBy("id", OrderType.ASC);
+			CompletableFuture<List<Dog>> dogsFuture = dogExecute.queryAsync();
+			CompletableFuture<Dog> dogFuture = dogExecute.getOneAsync();
+			CompletableFuture<Integer> countFuture = dogExecute.countAsync();
+			CompletableFuture<FlysqlPage<Dog>> pageFuture = dogExecute.queryPageAsync(2, 2);
+
+			Assertions.assertEquals(
+					Arrays.asList(81, 82, 83, 84, 85),
+					dogsFuture.join().stream().map(Dog::getId).collect(Collectors.toList()));
+			Assertions.assertEquals(81, dogFuture.join().getId());
+			Assertions.assertEquals(5, countFuture.join());
+			Assertions.assertEquals(5, pageFuture.join().getTotal());
+			Assertions.assertEquals(
+					Arrays.asList(83, 84),
+					pageFuture.join().getPage().stream().map(Dog::getId).collect(Collectors.toList()));
+
+			// async query runs on its own connection, rows not committed by the caller are not seen
+			Integer count =
+					transactionTemplate.execute(
+							status -> {
+								flysql.build().insert(Dog.class).save(newDog(86, "async", 86.0));
+								Assertions.assertEquals(6, dogExecute.count());
+								return dogExecute.countAsync().join();
+							});
+			Assertions.assertEquals(5, count);
+			Assertions.assertEquals(6, dogExecute.countAsync().join());
+		} finally {
+			flysql.build().delete(Dog.class).eq("name", "async").doDelete();
+		}
+	}
+
+	@Test
+	public void testGetOne() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 41; i <= 45; i++) {
+			dogs.add(newDog(i, "first", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+
+		FlysqlExecute<Dog> dogExecute =
+				flysql.build().select(Dog.class).eq("name", "first").orderBy("id", OrderType.ASC);
+		Assertions.assertEquals(41, dogExecute.getOne().getId());
+		Assertions.assertEquals(41, dogExecute.findFirst().map(Dog::getId).orElse(null));
+		Assertions.assertThrows(FlysqlException.class, dogExecute::getExactlyOne);
+
+		// the executor is not limited by getOne
+		Assertions.assertEquals(5, dogExecute.query().size());
+		Assertions.assertEquals(
+				43, flysql.build().select(Dog.class).eq("id", 43).getExactlyOne().getId());
+		Assertions.assertFalse(
+				flysql.build().select(Dog.class).eq("name", "nobody").findFirst().isPresent());
+		Assertions.assertThrows(
+				FlysqlException.class,
+				() -> flysql.build().select(Dog.class).eq("name", "nobody").getExactlyOne());
+	}
+
+	@Test
+	public void testInList() {
+
+		List<Dog> dogs = new ArrayList<>();
+		for (int i = 51; i <= 60; i++) {
+			dogs.add(newDog(i, "in", 1.0 * i));
+		}
+		flysql.build().insert(Dog.class).batchSave(dogs);
+
+		Object[] ids = {51, 52, 53, 54, 55, 56, 57, 58, 100};
+		for (boolean preparedStatement : Arrays.asList(true, false)) {
+			// above the threshold, h2 binds one array in prepared mode, else chunks
+			FlysqlProperties flysqlProperties = new FlysqlProperties();
+			flysqlProperties.setPreparedStatement(preparedStatement);
+			flysqlProperties.setInListThreshold(3);
+			Flysql inFlysql = newFlysql(flysqlProperties);
+
+			Assertions.assertEquals(8, inFlysql.build().select(Dog.class).in("id", ids).count());
+			List<Dog> notInDogs =
+					inFlysql
+							.build()
+							.select(Dog.class)
+							.eq("name", "in")
+							.notIn("id", ids)
+							.orderBy("id", OrderType.ASC)
+							.query();
+			Assertions.assertEquals(
+					Arrays.asList(59, 60), notInDogs.stream().map(Dog::getId).collect(Collectors.toList()));
+
+			FlysqlPage<Dog> dogPage =
+					inFlysql
+							.build()
+							.select(Dog.class)
+							.in("id", ids)
+							.orderBy("id", OrderType.DESC)
+							.queryPage(2, 4);
+			Assertions.assertEquals(8, dogPage.getTotal());
+			Assertions.assertEquals(54, dogPage.getPage().get(0).getId());
+			inFlysql.close();
+		}
+
+		// more values than bind parameters of sqlserver, prepared mode does not inline them
+		Object[] manyIds = new Object[2001];
+		Arrays.fill(manyIds, 51);
+		for (boolean preparedStatement : Arrays.asList(true, false)) {
+			FlysqlProperties flysqlProperties = new FlysqlProperties();
+			flysqlProperties.setPreparedStatement(preparedStatement);
+			flysqlProperties.setDialect(
+					Collections.singletonMap(
+							FlysqlConstants.PRIMARY_DATASOURCE_NAME, DataBaseType.SQL_SERVER));
+			Flysql sqlServerFlysql = newFlysql(flysqlProperties);
+			if (preparedStatement) {
+				Assertions.assertThrows(
+						FlysqlException.class,
+						() -> sqlServerFlysql.build().select(Dog.class).in("id", manyIds));
+			} else {
+				Assertions.assertDoesNotThrow(
+						() -> sqlServerFlysql.build().select(Dog.class).in("id", manyIds));
+			}
+			sqlServerFlysql.close();
+		}
+	}
+
+	@Test
+	public void testGroupBy() {
+
+		String[] names = {"ga", "ga", "ga", "gb", "gb", "gc"};
+		int[] amounts = {1, 2, 3, 10, 20, 5};
+		for (int i = 0; i < names.length; i++) {
+			flysql.build().insert(Cat.class).save(new Cat("group-" + i, names[i], amounts[i]));
+		}
+
+		for (Flysql metaFlysql : Arrays.asList(flysql, newFlysql(true))) {
+			List<CatTotal> catTotals =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.in("name", "ga", "gb", "gc")
+							.groupBy("name")
+							.sum("amount", "total")
+							.avg("amount", "average")
+							.having("total", SqlOperateType.GT, 5)
+							.orderBy("total", OrderType.DESC)
+							.into(CatTotal.class);
+			Assertions.assertEquals(2, catTotals.size());
+			Assertions.assertEquals("gb", catTotals.get(0).getName());
+			Assertions.assertEquals(30L, catTotals.get(0).getTotal());
+			Assertions.assertEquals(15.0, catTotals.get(0).getAverage());
+			Assertions.assertEquals(6L, catTotals.get(1).getTotal());
+
+			// count of groups, not rows
+			Assertions.assertEquals(
+					3, metaFlysql.build().select(Cat.class).like("name", "g").groupBy("name").count());
+
+			List<Map<String, Object>> catMaps =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.groupBy("name")
+							.sum("amount", "total")
+							.having("total", SqlOperateType.LT_EQ, 6)
+							.like("name", "g")
+							.orderBy("name", OrderType.ASC)
+							.queryMaps();
+			Assertions.assertEquals(
+					Arrays.asList("ga", "gc"),
+					catMaps.stream().map(e -> e.get("name")).collect(Collectors.toList()));
+
+			List<Long> catSums =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.sum("amount", "total")
+							.eq("name", "gb")
+							.into(Long.class);
+			Assertions.assertEquals(Collections.singletonList(30L), catSums);
+
+			List<Object[]> catTuples =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.min("amount", "low")
+							.max("amount", "high")
+							.eq("name", "ga")
+							.queryTuples();
+			Assertions.assertEquals(1, ((Number) catTuples.get(0)[0]).intValue());
+			Assertions.assertEquals(3, ((Number) catTuples.get(0)[1]).intValue());
+		}
+	}
+
+	@Test
+	public void testInto() {
+
+		flysql
+				.build()
+				.insert(Cat.class)
+				.batchSave(Arrays.asList(new Cat("into-1", "into", 1), new Cat("into-2", "into", 2)));
+
+		for (Flysql metaFlysql : Arrays.asList(flysql, newFlysql(true))) {
+			List<CatTotal> catNames =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.select("name")
+							.eq("id", "into-1")
+							.into(CatTotal.class);
+			Assertions.assertEquals(1, catNames.size());
+			Assertions.assertEquals("into", catNames.get(0).getName());
+			Assertions.assertNull(catNames.get(0).getTotal());
+
+			List<String> catIds =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.select("id")
+							.eq("name", "into")
+							.orderBy("id", OrderType.DESC)
+							.into(String.class);
+			Assertions.assertEquals(Arrays.asList("into-2", "into-1"), catIds);
+
+			List<Map<String, Object>> catMaps =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.select("id", "amount")
+							.eq("name", "into")
+							.orderBy("id", OrderType.ASC)
+							.queryMaps();
+			Assertions.assertEquals(2, catMaps.get(1).get("amount"));
+
+			List<Object[]> catTuples =
+					metaFlysql
+							.build()
+							.select(Cat.class)
+							.select("name", "amount")
+							.eq("id", "into-2")
+							.queryTuples();
+			Assertions.assertArrayEquals(new Object[] {"into", 2}, catTuples.get(0));
+		}
+
+		// enum and short are converted from the column value
+		flysql.build().insert(Cat.class).save(new Cat("into-3", "SIAMESE", 3));
+		for (Flysql metaFlysql : Arrays.asList(flysql, newFlysql(true))) {
+			CatBreed catBreed =
+					metaFlysql.build().select(Cat.class).eq("id", "into-3").into(CatBreed.class).get(0);
+			Assertions.assertEquals(CatBreed.Breed.SIAMESE, catBreed.getName());
+			Assertions.assertEquals((short) 3, catBreed.getAmount());
+		}
+	}
+
+	@Test
+	public void testBatchUpsert() {
+
+		// null row id is set back, upsert again updates the same row
+		Cat cat = new Cat(null, "upsert", 1);
+		flysql.build().insert(Cat.class).batchUpsert(Collections.singletonList(cat));
+		Assertions.assertNotNull(cat.getId());
+
+		flysql.build().update(Cat.class).eq("id", cat.getId()).doIsDelete();
+		cat.setAmount(2);
+		flysql.build().insert(Cat.class).batchUpsert(Collections.singletonList(cat));
+
+		// upsert does not restore the deleted row
+		Cat upsertCat = flysql.build().select(Cat.class).eq("id", cat.getId()).getExactlyOne();
+		Assertions.assertEquals(1, upsertCat.getIsDelete());
+		Assertions.assertEquals(2, upsertCat.getAmount());
+		Assertions.assertEquals(2, upsertCat.getVersion());
+		Assertions.assertEquals(1, flysql.build().select(Cat.class).eq("name", "upsert").count());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testBatchUpdateVersion() {
+
+		FlysqlProperties flysqlProperties = new FlysqlProperties();
+		flysqlProperties.setBatchSize(2);
+		Flysql batchFlysql = newFlysql(flysqlProperties);
+		try {
+			List<Cat> cats = new ArrayList<>();
+			for (int i = 1; i <= 4; i++) {
+				cats.add(new Cat("version-" + i, "version", i));
+			}
+			batchFlysql.build().insert(Cat.class).batchSave(cats);
+			cats.forEach(cat -> cat.setVersion(1));
+
+			// version-3 changed by others, the first batch rolls back with the transaction
+			batchFlysql.build().update(Cat.class).update("amount", 30).eq("id", "version-3").doUpdate();
+			cats.forEach(cat -> cat.setAmount(cat.getAmount() * 100));
+			Assertions.assertThrows(
+					FlysqlOptimisticLockException.class,
+					() ->
+							transactionTemplate.executeWithoutResult(
+									status -> batchFlysql.build().update(Cat.class).batchUpdate(cats)));
+			Assertions.assertEquals(Arrays.asList(1, 2, 30, 4), getCatAmounts(batchFlysql, "version"));
+
+			// stale row in the first batch, the next batch does not run
+			List<Cat> staleCats = Arrays.asList(cats.get(2), cats.get(3), cats.get(0), cats.get(1));
+			staleCats.forEach(cat -> cat.setVersion(1));
+			Assertions.assertThrows(
+					FlysqlOptimisticLockException.class,
+					() -> batchFlysql.build().update(Cat.class).batchUpdate(staleCats));
+			Assertions.assertEquals(2, cats.get(3).getVersion());
+			Assertions.assertEquals(1, cats.get(0).getVersion());
+			Assertions.assertEquals(Arrays.asList(1, 2, 30, 400), getCatAmounts(batchFlysql, "version"));
+		} finally {
+			batchFlysql.build().delete(Cat.class).eq("name", "version").doDelete();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testReplica() {
+
+		DataSource replicaDataSource =
+				new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+		new ResourceDatabasePopulator(new ClassPathResource("db/schema_h2.sql"))
+				.execute(replicaDataSource);
+
+		Map<String, JdbcTemplate> jdbcTemplateMap = new HashMap<>();
+		jdbcTemplateMap.put(
+				FlysqlConstants.PRIMARY_DATASOURCE_NAME, new JdbcTemplate(flysql.getDefaultDataSource()));
+		jdbcTemplateMap.put("replica", new JdbcTemplate(replicaDataSource));
+		FlysqlProperties flysqlProperties = new FlysqlProperties();
+		flysqlProperties.setReplicas(
+				Collections.singletonMap(
+						FlysqlConstants.PRIMARY_DATASOURCE_NAME, Collections.singletonList("replica")));
+		Flysql replicaFlysql = new Flysql(jdbcTemplateMap, new HashMap<>(), flysqlProperties);
+
+		try {
+			// writes of select builder go to primary, its queries read the replica
+			FlysqlExecute<Cat> catExecute = replicaFlysql.build().select(Cat.class).eq("id", "replica-1");
+			catExecute.save(new Cat("replica-1", "replica", 1));
+			Assertions.assertEquals(0, catExecute.count());
+			Assertions.assertEquals(1, flysql.build().select(Cat.class).eq("id", "replica-1").count());
+
+			replicaFlysql.build().select(Cat.class).update("amount", 2).eq("id", "replica-1").doUpdate();
+			Assertions.assertEquals(
+					2, flysql.build().select(Cat.class).eq("id", "replica-1").getOne().getAmount());
+
+			// transaction reads its own writes on primary
+			Integer count =
+					transactionTemplate.execute(
+							status -> replicaFlysql.build().select(Cat.class).eq("id", "replica-1").count());
+			Assertions.assertEquals(1, count);
+		} finally {
+			flysql.build().delete(Cat.class).eq("id", "replica-1").doDelete();
+			replicaFlysql.close();
+		}
+	}
+
+	@Test
+	public void testClose() {
+
+		Flysql closeFlysql = newFlysql(false);
+		closeFlysql.close();
+		for (Executor executor :
+				Arrays.asList(closeFlysql.getAsyncExecutor(), closeFlysql.getShardExecutor())) {
+			if (executor instanceof ExecutorService) {
+				Assertions.assertTrue(((ExecutorService) executor).isShutdown());
+			}
+		}
+
+		// spring datasource is not closed
+		Assertions.assertEquals(0, closeFlysql.build().select(Dog.class).eq("id", -1).count());
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testResultCache() {
+
+		FlysqlResultCache resultCache = flysql.getResultCache();
+		try {
+			flysql.build().insert(Cat.class).save(new Cat("cache-1", "tom", 1));
+
+			long missCount = resultCache.getMissCount();
+			long hitCount = resultCache.getHitCount();
+			List<Cat> cats = flysql.build().select(Cat.class).eq("name", "tom").query();
+			cats.get(0).setAmount(100);
+			cats = flysql.build().select(Cat.class).eq("name", "tom").query();
+			Assertions.assertEquals(missCount + 1, resultCache.getMissCount());
+			Assertions.assertEquals(hitCount + 1, resultCache.getHitCount());
+			Assertions.assertEquals(1, cats.get(0).getAmount(), "cached cat changed by caller");
+
+			// in transaction, not cached and invalidated after commit
+			long invalidateCount = resultCache.getInvalidateCount();
+			transactionTemplate.executeWithoutResult(
+					status -> {
+						flysql.build().update(Cat.class).update("amount", 2).eq("id", "cache-1").doUpdate();
+						Assertions.assertEquals(invalidateCount, resultCache.getInvalidateCount());
+						Assertions.assertEquals(
+								2, flysql.build().select(Cat.class).eq("name", "tom").query().get(0).getAmount());
+						Assertions.assertEquals(missCount + 1, resultCache.getMissCount());
+					});
+			Assertions.assertEquals(invalidateCount + 1, resultCache.getInvalidateCount());
+			Assertions.assertEquals(
+					2, flysql.build().select(Cat.class).eq("name", "tom").query().get(0).getAmount());
+
+			// rollback keeps the cache
+			transactionTemplate.executeWithoutResult(
+					status -> {
+						flysql.build().update(Cat.class).update("amount", 3).eq("id", "cache-1").doUpdate();
+						status.setRollbackOnly();
+					});
+			Assertions.assertEquals(invalidateCount + 1, resultCache.getInvalidateCount());
+			Assertions.assertEquals(
+					2, flysql.build().select(Cat.class).eq("name", "tom").query().get(0).getAmount());
+		} finally {
+			flysql.build().delete(Cat.class).eq("id", "cache-1").doDelete();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testShardRoute() {
+
+		List<JdbcTemplate> shards = newShardJdbcTemplates();
+		Flysql shardFlysql = newShardFlysql(shards, new FlysqlProperties());
+
+		try {
+			shardFlysql.build().insert(ModDog.class).batchSave(newShardDogs(ModDog::new, 1, 2, 3, 4));
+			assertShardIds(shards, Arrays.asList(2, 4), Arrays.asList(1, 3));
+			shards.forEach(e -> e.execute("delete from DOGS_T"));
+
+			shardFlysql.build().insert(HashDog.class).batchSave(newShardDogs(HashDog::new, 10, 11, 12));
+			assertShardIds(shards, Collections.singletonList(11), Arrays.asList(10, 12));
+			shards.forEach(e -> e.execute("delete from DOGS_T"));
+
+			shardFlysql.build().insert(RangeDog.class).batchSave(newShardDogs(RangeDog::new, 99, 100));
+			assertShardIds(shards, Collections.singletonList(99), Collections.singletonList(100));
+			shards.forEach(e -> e.execute("delete from DOGS_T"));
+
+			// query with key reads its shard only, a misplaced row on the other shard is not read
+			shardFlysql.build().insert(ModDog.class).batchSave(newShardDogs(ModDog::new, 2, 3));
+			shards.get(0).update("update DOGS_T set id = 3 where id = 2");
+			Assertions.assertEquals(1, shardFlysql.build().select(ModDog.class).eq("id", 3).count());
+			Assertions.assertEquals(
+					1, shardFlysql.build().select(ModDog.class).in("id", 3, 5).query().size());
+			Assertions.assertEquals(2, shardFlysql.build().select(ModDog.class).count());
+		} finally {
+			shardFlysql.close();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testShardScatter() {
+
+		List<JdbcTemplate> shards = newShardJdbcTemplates();
+		FlysqlProperties flysqlProperties = new FlysqlProperties();
+		flysqlProperties.setShardPageMaxRows(6);
+		Flysql shardFlysql = newShardFlysql(shards, flysqlProperties);
+
+		try {
+			// amount of id 1..8 is 7, 3, 10, 6, 2, 9, 5, 1
+			shardFlysql
+					.build()
+					.insert(ModDog.class)
+					.batchSave(newShardDogs(ModDog::new, 1, 2, 3, 4, 5, 6, 7, 8));
+
+			// or and no shard key read all shards
+			Assertions.assertEquals(
+					2, shardFlysql.build().select(ModDog.class).eq("id", 1).or().eq("id", 2).count());
+			Assertions.assertEquals(
+					4, shardFlysql.build().select(ModDog.class).gt("amountDouble", 5).count());
+
+			// order and limit apply to merged rows
+			Assertions.assertEquals(
+					Arrays.asList(3, 6, 1),
+					shardFlysql
+							.build()
+							.select(ModDog.class)
+							.orderBy("amountDouble", OrderType.DESC)
+							.limit(3)
+							.query()
+							.stream()
+							.map(Dog::getId)
+							.collect(Collectors.toList()));
+			FlysqlPage<ModDog> dogPage =
+					shardFlysql
+							.build()
+							.select(ModDog.class)
+							.orderBy("amountDouble", OrderType.ASC)
+							.queryPage(2, 3);
+			Assertions.assertEquals(8, dogPage.getTotal());
+			Assertions.assertEquals(
+					Arrays.asList(7, 4, 1),
+					dogPage.getPage().stream().map(Dog::getId).collect(Collectors.toList()));
+
+			// page reading more than shard-page-max-rows of each shard is rejected, one shard is not
+			Assertions.assertThrows(
+					FlysqlException.class,
+					() -> shardFlysql.build().select(ModDog.class).queryPage(3, 3));
+			Assertions.assertEquals(
+					1, shardFlysql.build().select(ModDog.class).eq("id", 8).queryPage(3, 3).getTotal());
+		} finally {
+			shardFlysql.close();
+		}
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void testShardWriteFailed() {
+
+		List<JdbcTemplate> shards = newShardJdbcTemplates();
+		Flysql shardFlysql = newShardFlysql(shards, new FlysqlProperties());
+
+		try {
+			shardFlysql.build().insert(ModDog.class).batchSave(newShardDogs(ModDog::new, 1, 2));
+			shards.get(1).execute("alter table DOGS_T rename column name to dog_name");
+
+			FlysqlShardException shardException =
+					Assertions.assertThrows(
+							FlysqlShardException.class,
+							() -> shardFlysql.build().update(ModDog.class).update("name", "failed").doUpdate());
+			Assertions.assertEquals(Collections.singletonList(0), shardException.getSucceededShards());
+			Assertions.assertEquals(1, shardException.getFailedShard());
+			Assertions.assertEquals(
+					"failed", shards.get(0).queryForObject("select name from DOGS_T", String.class));
+		} finally {
+			shardFlysql.close();
+		}
+	}
+
+	private List<JdbcTemplate> newShardJdbcTemplates() {
+
+		List<JdbcTemplate> shards = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			DataSource shardDataSource =
+					new DriverManagerDataSource("jdbc:h2:mem:shard" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+			new ResourceDatabasePopulator(new ClassPathResource("db/schema_h2.sql"))
+					.execute(shardDataSource);
+			shards.add(new JdbcTemplate(shardDataSource));
+		}
+		return shards;
+	}
+
+	private Flysql newShardFlysql(List<JdbcTemplate> shards, FlysqlProperties flysqlProperties) {
+
+		Map<String, JdbcTemplate> jdbcTemplateMap = new HashMap<>();
+		jdbcTemplateMap.put(
+				FlysqlConstants.PRIMARY_DATASOURCE_NAME, new JdbcTemplate(flysql.getDefaultDataSource()));
+		jdbcTemplateMap.put("shard0", shards.get(0));
+		jdbcTemplateMap.put("shard1", shards.get(1));
+		return new Flysql(jdbcTemplateMap, new HashMap<>(), flysqlProperties);
+	}
+
+	private <T extends Dog> List<T> newShardDogs(Supplier<T> dogSupplier, Integer... ids) {
+
+		List<T> dogs = new ArrayList<>();
+		for (Integer metaId : ids) {
+			T dog = dogSupplier.get();
+			BeanUtils.copyProperties(newDog(metaId, "shard", 1.0 * (metaId * 7 % 11)), dog);
+			dogs.add(dog);
+		}
+		return dogs;
+	}
+
+	private void assertShardIds(
+			List<JdbcTemplate> shards, List<Integer> shard0Ids, List<Integer> shard1Ids) {
+
+		String idSql = "select id from DOGS_T order by id";
+		Assertions.assertEquals(shard0Ids, shards.get(0).queryForList(idSql, Integer.class));
+		Assertions.assertEquals(shard1Ids, shards.get(1).queryForList(idSql, Integer.class));
+	}
+
+	private List<Integer> getCatAmounts(Flysql metaFlysql, String name) {
+
+		return metaFlysql
+				.build()
+				.select(Cat.class)
+				.eq("name", name)
+				.orderBy("id", OrderType.ASC)
+				.query()
+				.stream()
+				.map(Cat::getAmount)
+				.collect(Collectors.toList());
+	}
+
+	private Flysql newFlysql(boolean preparedStatement) {
+
+		FlysqlProperties flysqlProperties = new FlysqlProperties();
+		flysqlProperties.setPreparedStatement(preparedStatement);
+		return newFlysql(flysqlProperties);
+	}
+
+	private Flysql newFlysql(FlysqlProperties flysqlProperties) {
+
+		return new Flysql(
+				Collections.singletonMap(
+						FlysqlConstants.PRIMARY_DATASOURCE_NAME,
+						new JdbcTemplate(flysql.getDefaultDataSource())),
+				new HashMap<>(),
+				flysqlProperties);
+	}
+
+	private Dog newDog(Integer id, String name, Double amount) {
+
+		return new Dog(
+				id,
+				name,
+				amount,
+				new BigDecimal(String.valueOf(amount)),
+				new Date(),
+				LocalDate.now(),
+				LocalDateTime.now(),
+				true);
+	}
 }
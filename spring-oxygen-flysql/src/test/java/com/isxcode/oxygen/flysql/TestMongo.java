@@ -3,12 +3,18 @@
 import com.isxcode.oxygen.flysql.config.FlysqlAutoConfiguration;
 import com.isxcode.oxygen.flysql.core.Flysql;
 import com.isxcode.oxygen.flysql.entity.FlysqlPage;
+import com.isxcode.oxygen.flysql.enums.OrderType;
+import com.isxcode.oxygen.flysql.exception.FlysqlException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -106,4 +112,92 @@ public void testMongo() {
 		dogQuery = flysql.buildMongo().select(Dog.class).query();
 		dogQuery.forEach(System.out::println);
 	}
+
+	@Test
+	public void testBulk() {
+
+		List<Cat> cats = new ArrayList<>();
+		for (int i = 1; i <= 5; i++) {
+			cats.add(new Cat(null, "bulk", i));
+		}
+
+		try {
+			// row id and audit properties are filled before insert
+			flysql.buildMongo().insert(Cat.class).batchSave(cats, 2);
+			cats.forEach(
+					cat -> {
+						Assertions.assertNotNull(cat.getId());
+						Assertions.assertNotNull(cat.getLastModifiedDate());
+						Assertions.assertEquals(0, cat.getIsDelete());
+					});
+			Assertions.assertEquals(5, flysql.buildMongo().select(Cat.class).eq("name", "bulk").count());
+
+			cats.forEach(cat -> cat.setAmount(cat.getAmount() * 10));
+			flysql.buildMongo().update(Cat.class).batchUpdate(cats);
+			Assertions.assertEquals(
+					10,
+					flysql.buildMongo().select(Cat.class).eq("id", cats.get(0).getId()).getOne().getAmount());
+
+			cats.add(new Cat(null, "bulk", 6));
+			flysql.buildMongo().insert(Cat.class).batchUpsert(cats, 2);
+			Assertions.assertEquals(6, flysql.buildMongo().select(Cat.class).eq("name", "bulk").count());
+
+			Assertions.assertEquals(
+					5,
+					flysql
+							.buildMongo()
+							.select(Cat.class)
+							.eq("name", "bulk")
+							.notIn("id", Arrays.asList(cats.get(0).getId()))
+							.count());
+
+			// bulk remove, in() list longer than the batch size is split into chunks
+			List<String> ids = cats.stream().limit(4).map(Cat::getId).collect(Collectors.toList());
+			Assertions.assertEquals(
+					4, flysql.buildMongo().delete(Cat.class).in("id", ids).mongoRemove(2));
+			Assertions.assertEquals(2, flysql.buildMongo().select(Cat.class).eq("name", "bulk").count());
+		} finally {
+			flysql.buildMongo().delete(Cat.class).eq("name", "bulk").doDelete();
+		}
+	}
+
+	@Test
+	public void testProjection() {
+
+		try {
+			flysql
+					.buildMongo()
+					.insert(Cat.class)
+					.batchSave(Arrays.asList(new Cat(null, "projection", 1), new Cat(null, "projection", 2)));
+
+			// select() pushed to mongo as projection
+			List<Map<String, Object>> catMaps =
+					flysql
+							.buildMongo()
+							.select(Cat.class)
+							.select("name", "amount")
+							.eq("name", "projection")
+							.orderBy("amount", OrderType.DESC)
+							.queryMaps();
+			Assertions.assertEquals(2, catMaps.size());
+			Assertions.assertEquals(2, catMaps.get(0).get("amount"));
+			Assertions.assertFalse(catMaps.get(0).containsKey("version"));
+
+			List<CatTotal> catNames =
+					flysql
+							.buildMongo()
+							.select(Cat.class)
+							.select("name")
+							.eq("name", "projection")
+							.limit(1)
+							.into(CatTotal.class);
+			Assertions.assertEquals(1, catNames.size());
+			Assertions.assertEquals("projection", catNames.get(0).getName());
+
+			Assertions.assertThrows(
+					FlysqlException.class, () -> flysql.buildMongo().select(Cat.class).queryTuples());
+		} finally {
+			flysql.buildMongo().delete(Cat.class).eq("name", "projection").doDelete();
+		}
+	}
 }
@@ -14,3 +14,16 @@ CREATE TABLE DOGS_T
     last_modified_by      VARCHAR(100) NOT NULL,
     last_modified_date    DATETIME     NOT NULL
 );
+
+DROP TABLE IF EXISTS CATS;
+
+CREATE TABLE CATS
+(
+    id                    VARCHAR(100) NOT NULL PRIMARY KEY,
+    name                  VARCHAR(100),
+    amount                INT,
+    version               INT,
+    is_delete             INT,
+    last_modified_by      VARCHAR(100),
+    last_modified_date    DATETIME
+);